@@ -0,0 +1,91 @@
+package rendimiento;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Figura;
+import model.LienzoModel;
+import view.CanvasPanel;
+
+/**
+ * Pintado de un dibujo completo:
+ *  - dibujarFiguras: Figura.dibujar de todas las figuras sobre un BufferedImage.
+ *  - pintarLienzo: repintado completo de CanvasPanel con la caché de teselas
+ *    vacía (consulta al índice espacial + pintado de las teselas visibles).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DibujarBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int numFiguras;
+
+    @Param({"8", "64"})
+    public int numVertices;
+
+    private List<Figura> figuras;
+    private BufferedImage imagen;
+    private CanvasPanel lienzo;
+    private BufferedImage pantalla;
+
+    @Setup
+    public void preparar() {
+        figuras = GeneradorFiguras.mezcla(numFiguras, numVertices, 42);
+        imagen = new BufferedImage(GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO,
+                                   BufferedImage.TYPE_INT_RGB);
+
+        LienzoModel modelo = new LienzoModel();
+        for (Figura f : figuras) {
+            modelo.agregarFigura(f);
+        }
+        lienzo = new CanvasPanel();
+        lienzo.setModel(modelo);
+        // Teselas pintadas dentro de paint(): si no, se mediría solo el encargo
+        lienzo.setParalelo(false);
+        lienzo.setSize(GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO);
+        pantalla = new BufferedImage(GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO,
+                                     BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public BufferedImage dibujarFiguras() {
+        Graphics2D g2 = imagen.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, imagen.getWidth(), imagen.getHeight());
+        for (Figura f : figuras) {
+            f.dibujar(g2);
+        }
+        g2.dispose();
+        return imagen;
+    }
+
+    @Benchmark
+    public BufferedImage pintarLienzo() {
+        // Descarta las teselas: se mide el repintado desde cero
+        lienzo.lienzoVaciado();
+        Graphics2D g2 = pantalla.createGraphics();
+        g2.setClip(0, 0, pantalla.getWidth(), pantalla.getHeight());
+        lienzo.paint(g2);
+        g2.dispose();
+        return pantalla;
+    }
+}
@@ -0,0 +1,85 @@
+package rendimiento;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PoligonoIrregularFigura;
+import model.PoligonoRegularFigura;
+import model.PuntoFigura;
+
+/**
+ * Dibujos de prueba para los benchmarks, siempre iguales para la misma
+ * semilla: así los resultados de distintas ejecuciones son comparables.
+ */
+final class GeneradorFiguras {
+    static final int ANCHO = 800;
+    static final int ALTO = 600;
+
+    // Paleta corta: en un dibujo real se repiten pocos colores
+    private static final Color[] COLORES = {
+        Color.BLACK, Color.RED, Color.BLUE, Color.GREEN.darker(),
+        Color.ORANGE, Color.MAGENTA, new Color(0x336699), new Color(0x996633)
+    };
+
+    private GeneradorFiguras() {
+    }
+
+    /**
+     * Figuras de los cinco tipos a partes iguales, repartidas por un lienzo
+     * de ANCHO x ALTO. Los polígonos irregulares tienen numVertices vértices.
+     */
+    static List<Figura> mezcla(int numFiguras, int numVertices, long semilla) {
+        Random r = new Random(semilla);
+        List<Figura> figuras = new ArrayList<>(numFiguras);
+        for (int i = 0; i < numFiguras; i++) {
+            int x = r.nextInt(ANCHO);
+            int y = r.nextInt(ALTO);
+            Color trazo = COLORES[r.nextInt(COLORES.length)];
+            Color relleno = COLORES[r.nextInt(COLORES.length)];
+            boolean rell = r.nextBoolean();
+            switch (i % 5) {
+                case 0:
+                    figuras.add(new PuntoFigura(x, y, trazo));
+                    break;
+                case 1:
+                    figuras.add(new LineaFigura(x, y,
+                        x + r.nextInt(101) - 50, y + r.nextInt(101) - 50, trazo));
+                    break;
+                case 2:
+                    figuras.add(new CirculoFigura(x, y, 1 + r.nextInt(40), trazo, relleno, rell));
+                    break;
+                case 3:
+                    figuras.add(new PoligonoRegularFigura(x, y, 1 + r.nextInt(40),
+                        3 + r.nextInt(10), r.nextDouble() * 2 * Math.PI, trazo, relleno, rell));
+                    break;
+                default: {
+                    int[][] xy = poligonoSimple(numVertices, x, y, 40, r);
+                    figuras.add(new PoligonoIrregularFigura(xy[0], xy[1], trazo, relleno, rell));
+                    break;
+                }
+            }
+        }
+        return figuras;
+    }
+
+    /**
+     * Polígono simple (sin cruces) de n vértices alrededor de (cx, cy):
+     * ángulos crecientes y radio aleatorio, es decir, con forma de estrella.
+     */
+    static int[][] poligonoSimple(int n, int cx, int cy, int radioMax, Random r) {
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            double ang = 2 * Math.PI * i / n;
+            double radio = radioMax * (0.5 + 0.5 * r.nextDouble());
+            xs[i] = cx + (int) Math.round(radio * Math.cos(ang));
+            ys[i] = cy + (int) Math.round(radio * Math.sin(ang));
+        }
+        return new int[][] { xs, ys };
+    }
+}
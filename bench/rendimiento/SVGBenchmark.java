@@ -0,0 +1,108 @@
+package rendimiento;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import archivo.ExportadorSVG;
+import model.Figura;
+
+/**
+ * Generación del documento SVG de un dibujo:
+ *  - legadoStringFormat: String.format y un String con todo el documento,
+ *    como antes de ExportadorSVG (ver SVGLegado).
+ *  - toSVG: Figura.toSVG() de cada figura concatenado en un StringBuilder.
+ *  - exportador / exportadorMinificado: ExportadorSVG escribiendo en un
+ *    Writer que descarta los datos (sin disco, sin paralelismo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SVGBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int numFiguras;
+
+    @Param({"8", "64"})
+    public int numVertices;
+
+    private List<Figura> figuras;
+    private ExportadorSVG exportador;
+    private ExportadorSVG exportadorMinificado;
+
+    @Setup
+    public void preparar() {
+        figuras = GeneradorFiguras.mezcla(numFiguras, numVertices, 42);
+        exportador = new ExportadorSVG(GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO);
+        exportador.setParalelo(false);
+        exportadorMinificado = new ExportadorSVG(GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO);
+        exportadorMinificado.setMinificado(true);
+    }
+
+    @Benchmark
+    public String legadoStringFormat() {
+        return SVGLegado.generarSVG(figuras, GeneradorFiguras.ANCHO, GeneradorFiguras.ALTO);
+    }
+
+    @Benchmark
+    public String toSVG() {
+        StringBuilder sb = new StringBuilder();
+        for (Figura f : figuras) {
+            sb.append("  ").append(f.toSVG()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void exportador(Blackhole bh) throws IOException {
+        exportador.escribir(figuras, new Consumidor(bh));
+    }
+
+    @Benchmark
+    public void exportadorMinificado(Blackhole bh) throws IOException {
+        exportadorMinificado.escribir(figuras, new Consumidor(bh));
+    }
+
+    /**
+     * Writer que entrega lo recibido al Blackhole, para que JIT no pueda
+     * eliminar la generación del texto.
+     */
+    private static final class Consumidor extends Writer {
+        private final Blackhole bh;
+
+        Consumidor(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            bh.consume(cbuf);
+            bh.consume(len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package rendimiento;
+
+import java.awt.Color;
+import java.util.List;
+
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PoligonoIrregularFigura;
+import model.PoligonoRegularFigura;
+import model.PuntoFigura;
+
+/**
+ * Generación de SVG tal como se hacía antes de FormatoSVG/ExportadorSVG:
+ * String.format por figura y por color, y el documento entero en un
+ * StringBuilder (antiguo MainController.generarSVG). Solo sirve de
+ * referencia para SVGBenchmark.
+ */
+final class SVGLegado {
+
+    private SVGLegado() {
+    }
+
+    static String generarSVG(List<Figura> figuras, int width, int height) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append(String.format(
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\">\n",
+            width, height
+        ));
+        for (Figura f : figuras) {
+            sb.append("  ").append(toSVG(f)).append("\n");
+        }
+        sb.append("</svg>\n");
+        return sb.toString();
+    }
+
+    static String toSVG(Figura f) {
+        if (f instanceof PuntoFigura) {
+            PuntoFigura p = (PuntoFigura) f;
+            return String.format(
+                "<circle cx=\"%d\" cy=\"%d\" r=\"%d\" fill=\"%s\" />",
+                p.getX(), p.getY(), 3, rgb(p.getColorTrazo())
+            );
+        }
+        else if (f instanceof LineaFigura) {
+            LineaFigura l = (LineaFigura) f;
+            return String.format(
+                "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"%s\" stroke-width=\"1\" />",
+                l.getX1(), l.getY1(), l.getX2(), l.getY2(), rgb(l.getColorTrazo())
+            );
+        }
+        else if (f instanceof CirculoFigura) {
+            CirculoFigura c = (CirculoFigura) f;
+            return String.format(
+                "<circle cx=\"%d\" cy=\"%d\" r=\"%d\" stroke=\"%s\" fill=\"%s\" />",
+                c.getCentroX(), c.getCentroY(), c.getRadio(),
+                rgb(c.getColorTrazo()), relleno(c.getColorRelleno(), c.isRelleno())
+            );
+        }
+        else if (f instanceof PoligonoRegularFigura) {
+            PoligonoRegularFigura prf = (PoligonoRegularFigura) f;
+            StringBuilder puntosSB = new StringBuilder();
+            int nLados = prf.getnLados();
+            double angInc = 2 * Math.PI / nLados;
+            for (int i = 0; i < nLados; i++) {
+                double ang = prf.getAnguloInicio() + i * angInc;
+                int vx = prf.getCentroX() + (int) Math.round(prf.getRadio() * Math.cos(ang));
+                int vy = prf.getCentroY() + (int) Math.round(prf.getRadio() * Math.sin(ang));
+                puntosSB.append(vx).append(",").append(vy);
+                if (i < nLados - 1) puntosSB.append(" ");
+            }
+            return String.format(
+                "<polygon points=\"%s\" stroke=\"%s\" fill=\"%s\" />",
+                puntosSB.toString(), rgb(prf.getColorTrazo()),
+                relleno(prf.getColorRelleno(), prf.isRelleno())
+            );
+        }
+        else if (f instanceof PoligonoIrregularFigura) {
+            PoligonoIrregularFigura pirf = (PoligonoIrregularFigura) f;
+            StringBuilder puntosSB = new StringBuilder();
+            int n = pirf.getNumVertices();
+            for (int i = 0; i < n; i++) {
+                puntosSB.append(pirf.getVerticeX(i)).append(",").append(pirf.getVerticeY(i));
+                if (i < n - 1) puntosSB.append(" ");
+            }
+            return String.format(
+                "<polygon points=\"%s\" stroke=\"%s\" fill=\"%s\" />",
+                puntosSB.toString(), rgb(pirf.getColorTrazo()),
+                relleno(pirf.getColorRelleno(), pirf.isRelleno())
+            );
+        }
+        throw new IllegalArgumentException("Tipo de figura no soportado: " + f.getClass().getName());
+    }
+
+    private static String rgb(Color c) {
+        return String.format("rgb(%d,%d,%d)", c.getRed(), c.getGreen(), c.getBlue());
+    }
+
+    private static String relleno(Color c, boolean relleno) {
+        return relleno ? rgb(c) : "none";
+    }
+}
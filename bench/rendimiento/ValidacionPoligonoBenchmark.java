@@ -0,0 +1,128 @@
+package rendimiento;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.DetectorIntersecciones;
+
+/**
+ * Validación de un polígono irregular simple (el peor caso: hay que
+ * recorrerlo entero para saber que no tiene cruces):
+ *  - barrido: DetectorIntersecciones.hayCruceEnPolilinea (Shamos–Hoey,
+ *    O(n log n)), la misma regla que usa "Finalizar Pol. irregular".
+ *  - barridoPoligonoCerrado: DetectorIntersecciones.hayAutoInterseccion,
+ *    que además comprueba el lado de cierre, contactos y solapamientos.
+ *  - legadoParesDeLados: la comprobación de todos los pares de lados que
+ *    hacía MainController.hayInterseccionEntreVertices, O(n²).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionPoligonoBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int numVertices;
+
+    private int[] xs, ys;
+    private List<Point> puntos;
+
+    @Setup
+    public void preparar() {
+        // Radio grande para que el redondeo no junte vértices vecinos
+        int[][] xy = GeneradorFiguras.poligonoSimple(
+            numVertices, 0, 0, 100 * numVertices, new Random(42));
+        xs = xy[0];
+        ys = xy[1];
+        if (DetectorIntersecciones.hayAutoInterseccion(xs, ys, numVertices)) {
+            throw new IllegalStateException("El polígono de prueba no es simple");
+        }
+        puntos = new ArrayList<>(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            puntos.add(new Point(xs[i], ys[i]));
+        }
+    }
+
+    @Benchmark
+    public boolean barrido() {
+        return DetectorIntersecciones.hayCruceEnPolilinea(xs, ys, numVertices);
+    }
+
+    @Benchmark
+    public boolean barridoPoligonoCerrado() {
+        return DetectorIntersecciones.hayAutoInterseccion(xs, ys, numVertices);
+    }
+
+    @Benchmark
+    public boolean legadoParesDeLados() {
+        return hayInterseccionEntreVertices(puntos);
+    }
+
+    // Copia de la versión anterior a DetectorIntersecciones, como referencia
+
+    private static boolean hayInterseccionEntreVertices(List<Point> v) {
+        int n = v.size();
+        if (n < 4) return false;
+        for (int i = 0; i < n - 1; i++) {
+            Point a1 = v.get(i);
+            Point a2 = v.get(i + 1);
+            for (int j = i + 2; j < n - 1; j++) {
+                if (i == 0 && j == n - 2) continue;
+                Point b1 = v.get(j);
+                Point b2 = v.get(j + 1);
+                if (segmentosSeIntersectan(
+                        a1.x, a1.y, a2.x, a2.y,
+                        b1.x, b1.y, b2.x, b2.y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentosSeIntersectan(
+            int x1, int y1, int x2, int y2,
+            int x3, int y3, int x4, int y4) {
+        java.util.function.BiFunction<Point, Point, Point> sub =
+            (p, q) -> new Point(p.x - q.x, p.y - q.y);
+        java.util.function.BiFunction<Point, Point, Long> cross =
+            (p, q) -> (long) p.x * q.y - (long) p.y * q.x;
+
+        Point A = new Point(x1, y1);
+        Point B = new Point(x2, y2);
+        Point C = new Point(x3, y3);
+        Point D = new Point(x4, y4);
+
+        Point AB = sub.apply(B, A);
+        Point AC = sub.apply(C, A);
+        Point AD = sub.apply(D, A);
+        Point CD = sub.apply(D, C);
+        Point CA = sub.apply(A, C);
+        Point CB = sub.apply(B, C);
+
+        long cross1 = cross.apply(AB, AC);
+        long cross2 = cross.apply(AB, AD);
+        long cross3 = cross.apply(CD, CA);
+        long cross4 = cross.apply(CD, CB);
+
+        return ( (cross1 > 0 && cross2 < 0 || cross1 < 0 && cross2 > 0)
+              && (cross3 > 0 && cross4 < 0 || cross3 < 0 && cross4 > 0) );
+    }
+}
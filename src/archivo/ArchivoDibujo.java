@@ -0,0 +1,283 @@
+package archivo;
+
+import java.awt.Color;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import dao.CodificadorVertices;
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PoligonoIrregularFigura;
+import model.PoligonoRegularFigura;
+import model.ProgresoListener;
+import model.PuntoFigura;
+
+/**
+ * Guarda y abre dibujos en un archivo binario propio (.dib), sin pasar por la BD.
+ *
+ * Formato (enteros big-endian):
+ * <pre>
+ *   cabecera:  "DIBJ" | versión (int16) | reservado (int16) | nº de figuras (int32)
+ *   figura:    tipo (1 byte) seguido de sus campos:
+ *     PUNTO        x, y, colorTrazo                               (int32)
+ *     LINEA        x1, y1, x2, y2, colorTrazo                     (int32)
+ *     CIRCULO      cx, cy, radio, colorTrazo, colorRelleno (int32), relleno (byte)
+ *     POLIG_REG    cx, cy, radio, nLados (int32), anguloInicio (float64),
+ *                  colorTrazo, colorRelleno (int32), relleno (byte)
+ *     POLIG_IRREG  colorTrazo, colorRelleno (int32), relleno (byte),
+ *                  longitud (int32) + vértices codificados con CodificadorVertices
+ * </pre>
+ * Los colores se guardan como Color.getRGB(), igual que en la BD.
+ *
+ * La escritura va por un FileChannel con un búfer grande (y a través de
+ * EscrituraAtomica, así que nunca deja un archivo a medias); la lectura
+ * carga el archivo entero en un ByteBuffer del heap con una sola lectura
+ * y lo recorre directamente. No se proyecta con FileChannel.map: la
+ * proyección sigue viva hasta que el GC la recoge y, en Windows, mientras
+ * tanto impide reemplazar el archivo al volver a guardarlo.
+ */
+public class ArchivoDibujo {
+    /** Extensión recomendada para estos archivos. */
+    public static final String EXTENSION = "dib";
+
+    private static final int MAGICO = ('D' << 24) | ('I' << 16) | ('B' << 8) | 'J';
+    private static final short VERSION = 1;
+    private static final int TAMANO_CABECERA = 12;
+
+    private static final byte TIPO_PUNTO = 1;
+    private static final byte TIPO_LINEA = 2;
+    private static final byte TIPO_CIRCULO = 3;
+    private static final byte TIPO_POLIG_REG = 4;
+    private static final byte TIPO_POLIG_IRREG = 5;
+
+    // Lo que más ocupa una figura de tamaño fijo (pol. regular): 1 + 4*4 + 8 + 2*4 + 1
+    private static final int MAX_FIGURA_FIJA = 34;
+    private static final int TAMANO_BUFER = 1 << 20;
+    private static final int FIGURAS_POR_AVISO = 10_000;
+
+    /**
+     * Guarda las figuras en el archivo, sustituyéndolo si existe.
+     *
+     * @param figuras figuras a guardar; no deben cambiar mientras tanto
+     * @throws CancellationException si el listener pide cancelar; el destino no se toca
+     */
+    public void guardar(List<Figura> figuras, Path destino, ProgresoListener progreso)
+            throws IOException {
+        EscrituraAtomica.escribir(destino, temporal -> {
+            try (FileChannel canal = FileChannel.open(temporal,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                escribir(figuras, canal, progreso);
+            }
+        });
+    }
+
+    private void escribir(List<Figura> figuras, FileChannel canal, ProgresoListener progreso)
+            throws IOException {
+        int total = figuras.size();
+        ByteBuffer buf = ByteBuffer.allocateDirect(TAMANO_BUFER);
+        buf.putInt(MAGICO).putShort(VERSION).putShort((short) 0).putInt(total);
+
+        for (int i = 0; i < total; i++) {
+            Figura f = figuras.get(i);
+            if (buf.remaining() < MAX_FIGURA_FIJA + 4) {
+                vaciar(buf, canal);
+            }
+            if (f instanceof PuntoFigura) {
+                PuntoFigura p = (PuntoFigura) f;
+                buf.put(TIPO_PUNTO).putInt(p.getX()).putInt(p.getY())
+                   .putInt(p.getColorTrazo().getRGB());
+            }
+            else if (f instanceof LineaFigura) {
+                LineaFigura l = (LineaFigura) f;
+                buf.put(TIPO_LINEA).putInt(l.getX1()).putInt(l.getY1())
+                   .putInt(l.getX2()).putInt(l.getY2())
+                   .putInt(l.getColorTrazo().getRGB());
+            }
+            else if (f instanceof CirculoFigura) {
+                CirculoFigura c = (CirculoFigura) f;
+                buf.put(TIPO_CIRCULO).putInt(c.getCentroX()).putInt(c.getCentroY())
+                   .putInt(c.getRadio())
+                   .putInt(c.getColorTrazo().getRGB()).putInt(c.getColorRelleno().getRGB())
+                   .put((byte) (c.isRelleno() ? 1 : 0));
+            }
+            else if (f instanceof PoligonoRegularFigura) {
+                PoligonoRegularFigura prf = (PoligonoRegularFigura) f;
+                buf.put(TIPO_POLIG_REG).putInt(prf.getCentroX()).putInt(prf.getCentroY())
+                   .putInt(prf.getRadio()).putInt(prf.getnLados())
+                   .putDouble(prf.getAnguloInicio())
+                   .putInt(prf.getColorTrazo().getRGB()).putInt(prf.getColorRelleno().getRGB())
+                   .put((byte) (prf.isRelleno() ? 1 : 0));
+            }
+            else if (f instanceof PoligonoIrregularFigura) {
+                PoligonoIrregularFigura pirf = (PoligonoIrregularFigura) f;
+                byte[] vertices = CodificadorVertices.codificar(pirf);
+                buf.put(TIPO_POLIG_IRREG)
+                   .putInt(pirf.getColorTrazo().getRGB()).putInt(pirf.getColorRelleno().getRGB())
+                   .put((byte) (pirf.isRelleno() ? 1 : 0))
+                   .putInt(vertices.length);
+                if (vertices.length <= buf.remaining()) {
+                    buf.put(vertices);
+                } else {
+                    vaciar(buf, canal);
+                    escribirTodo(canal, ByteBuffer.wrap(vertices));
+                }
+            }
+            else {
+                throw new IOException("Tipo de figura no soportado: " + f.getClass().getName());
+            }
+
+            if ((i + 1) % FIGURAS_POR_AVISO == 0 && !progreso.avanzar(i + 1, total)) {
+                throw new CancellationException("Guardado cancelado");
+            }
+        }
+        vaciar(buf, canal);
+        progreso.avanzar(total, total);
+    }
+
+    /**
+     * Lee todas las figuras del archivo.
+     *
+     * @throws IOException si no se puede leer o no es un archivo de dibujo válido
+     * @throws CancellationException si el listener pide cancelar
+     */
+    public List<Figura> abrir(Path origen, ProgresoListener progreso) throws IOException {
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("Archivo demasiado grande: " + tamano + " bytes");
+            }
+            if (tamano < TAMANO_CABECERA) {
+                throw new IOException("No es un archivo de dibujo (demasiado corto)");
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) tamano);
+            while (buf.hasRemaining()) {
+                if (canal.read(buf) < 0) {
+                    throw new EOFException("El archivo se ha acortado mientras se leía");
+                }
+            }
+            buf.flip();
+            try {
+                return leer(buf, progreso);
+            } catch (BufferUnderflowException | IllegalArgumentException ex) {
+                throw new IOException("Archivo de dibujo dañado o incompleto", ex);
+            }
+        }
+    }
+
+    private List<Figura> leer(ByteBuffer buf, ProgresoListener progreso) throws IOException {
+        if (buf.getInt() != MAGICO) {
+            throw new IOException("No es un archivo de dibujo");
+        }
+        short version = buf.getShort();
+        if (version != VERSION) {
+            throw new IOException("Versión de archivo no soportada: " + version);
+        }
+        buf.getShort(); // reservado
+        int total = buf.getInt();
+        // Cada figura ocupa al menos 13 bytes: un total mayor es imposible
+        if (total < 0 || total > buf.remaining() / 13) {
+            throw new IOException("Número de figuras no válido: " + total);
+        }
+
+        Colores colores = new Colores();
+        List<Figura> figuras = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            byte tipo = buf.get();
+            switch (tipo) {
+                case TIPO_PUNTO: {
+                    int x = buf.getInt(), y = buf.getInt();
+                    figuras.add(new PuntoFigura(x, y, colores.de(buf.getInt())));
+                    break;
+                }
+                case TIPO_LINEA: {
+                    int x1 = buf.getInt(), y1 = buf.getInt();
+                    int x2 = buf.getInt(), y2 = buf.getInt();
+                    figuras.add(new LineaFigura(x1, y1, x2, y2, colores.de(buf.getInt())));
+                    break;
+                }
+                case TIPO_CIRCULO: {
+                    int cx = buf.getInt(), cy = buf.getInt(), r = buf.getInt();
+                    Color trazo = colores.de(buf.getInt());
+                    Color rell = colores.de(buf.getInt());
+                    figuras.add(new CirculoFigura(cx, cy, r, trazo, rell, buf.get() != 0));
+                    break;
+                }
+                case TIPO_POLIG_REG: {
+                    int cx = buf.getInt(), cy = buf.getInt(), r = buf.getInt();
+                    int nLados = buf.getInt();
+                    if (nLados < 0) {
+                        throw new IOException("Número de lados no válido: " + nLados);
+                    }
+                    double angulo = buf.getDouble();
+                    Color trazo = colores.de(buf.getInt());
+                    Color rell = colores.de(buf.getInt());
+                    figuras.add(new PoligonoRegularFigura(
+                        cx, cy, r, nLados, angulo, trazo, rell, buf.get() != 0));
+                    break;
+                }
+                case TIPO_POLIG_IRREG: {
+                    Color trazo = colores.de(buf.getInt());
+                    Color rell = colores.de(buf.getInt());
+                    boolean relleno = buf.get() != 0;
+                    int longitud = buf.getInt();
+                    if (longitud < 0 || longitud > buf.remaining()) {
+                        throw new IOException("Longitud de vértices no válida: " + longitud);
+                    }
+                    // Se decodifica directamente desde el array del búfer
+                    int[][] xy = CodificadorVertices.decodificar(
+                        buf.array(), buf.arrayOffset() + buf.position(), longitud);
+                    buf.position(buf.position() + longitud);
+                    figuras.add(PoligonoIrregularFigura.sinCopiar(xy[0], xy[1], trazo, rell, relleno));
+                    break;
+                }
+                default:
+                    throw new IOException("Tipo de figura desconocido (" + tipo + ") en la figura " + i);
+            }
+            if ((i + 1) % FIGURAS_POR_AVISO == 0 && !progreso.avanzar(i + 1, total)) {
+                throw new CancellationException("Carga cancelada");
+            }
+        }
+        progreso.avanzar(total, total);
+        return figuras;
+    }
+
+    private static void vaciar(ByteBuffer buf, FileChannel canal) throws IOException {
+        buf.flip();
+        escribirTodo(canal, buf);
+        buf.clear();
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            canal.write(datos);
+        }
+    }
+
+    /**
+     * Reutiliza el mismo Color para cada valor RGB repetido, en lugar de
+     * crear uno por figura.
+     */
+    private static final class Colores {
+        private final Color[] cache = new Color[1024];
+
+        Color de(int rgb) {
+            int pos = (rgb ^ (rgb >>> 10) ^ (rgb >>> 20)) & (cache.length - 1);
+            Color c = cache[pos];
+            // new Color(int) descarta la transparencia, igual que al cargar de la BD
+            if (c == null || c.getRGB() != (rgb | 0xFF000000)) {
+                c = new Color(rgb);
+                cache[pos] = c;
+            }
+            return c;
+        }
+    }
+}
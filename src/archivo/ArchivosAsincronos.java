@@ -0,0 +1,93 @@
+package archivo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Figura;
+import model.ProgresoListener;
+
+/**
+ * Ejecuta las operaciones con archivos (exportar SVG, guardar y abrir
+ * archivos de dibujo) en un hilo dedicado para no bloquear el EDT, igual
+ * que PersistenciaAsincrona con la BD. Cada método devuelve un
+ * CompletableFuture; quien lo use debe volver al EDT para tocar el modelo o
+ * la vista. Los errores de E/S llegan como UncheckedIOException dentro de
+ * la CompletionException.
+ */
+public class ArchivosAsincronos {
+    private static final AtomicInteger contadorHilos = new AtomicInteger();
+
+    private final ExecutorService ejecutor;
+
+    public ArchivosAsincronos() {
+        this.ejecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "archivos-" + contadorHilos.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Exporta las figuras a SVG.
+     *
+     * @param exportador exportador ya configurado (tamaño, compresión...);
+     *                   no debe modificarse mientras tanto
+     * @param figuras instantánea inmutable de las figuras (LienzoModel.getInstantanea())
+     * @return el destino, una vez renombrado el temporal
+     */
+    public CompletableFuture<Path> exportarSVG(ExportadorSVG exportador, List<Figura> figuras,
+                                               Path destino, ProgresoListener progreso) {
+        return ejecutar(() -> {
+            exportador.exportar(figuras, destino, progreso);
+            return destino;
+        });
+    }
+
+    /**
+     * Guarda las figuras en un archivo de dibujo binario (ver ArchivoDibujo).
+     *
+     * @param figuras instantánea inmutable de las figuras
+     */
+    public CompletableFuture<Path> guardarDibujo(List<Figura> figuras, Path destino,
+                                                 ProgresoListener progreso) {
+        return ejecutar(() -> {
+            new ArchivoDibujo().guardar(figuras, destino, progreso);
+            return destino;
+        });
+    }
+
+    /**
+     * Lee las figuras de un archivo de dibujo binario.
+     */
+    public CompletableFuture<List<Figura>> abrirDibujo(Path origen, ProgresoListener progreso) {
+        return ejecutar(() -> new ArchivoDibujo().abrir(origen, progreso));
+    }
+
+    /**
+     * Detiene el hilo (las tareas ya encoladas terminan).
+     */
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> ejecutar(OperacionArchivo<T> operacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return operacion.ejecutar();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, ejecutor);
+    }
+
+    @FunctionalInterface
+    private interface OperacionArchivo<T> {
+        T ejecutar() throws IOException;
+    }
+}
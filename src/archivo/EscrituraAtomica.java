@@ -0,0 +1,57 @@
+package archivo;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Escribe un archivo de forma que nunca quede a medias: el contenido va a un
+ * temporal en la misma carpeta y, solo si todo ha ido bien, se renombra sobre
+ * el destino. Si la escritura falla o se cancela, el temporal se borra y el
+ * destino (si existía) queda como estaba.
+ */
+final class EscrituraAtomica {
+
+    private EscrituraAtomica() {
+    }
+
+    /**
+     * Contenido del archivo: escribe en la ruta temporal recibida.
+     */
+    @FunctionalInterface
+    interface Contenido {
+        void escribir(Path temporal) throws IOException;
+    }
+
+    static void escribir(Path destino, Contenido contenido) throws IOException {
+        Path absoluto = destino.toAbsolutePath();
+        Path temporal = absoluto.resolveSibling(
+            "." + absoluto.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        boolean terminado = false;
+        try {
+            contenido.escribir(temporal);
+            mover(temporal, absoluto);
+            terminado = true;
+        } finally {
+            if (!terminado) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException ex) {
+                    // No tapar el error original
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino,
+                       StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
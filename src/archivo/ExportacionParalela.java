@@ -0,0 +1,133 @@
+package archivo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import model.BufferSVG;
+import model.Figura;
+import model.ProgresoListener;
+
+/**
+ * Exportación SVG repartida entre varios hilos, para dibujos enormes.
+ *
+ * La lista se parte en trozos consecutivos; cada trozo se convierte a bytes
+ * UTF-8 en el ForkJoinPool común y los trozos se escriben en el canal del
+ * archivo en su orden original. Como cada figura se serializa igual que en
+ * la exportación secuencial, el archivo resultante es idéntico byte a byte.
+ *
+ * Solo hay a la vez unos pocos trozos en vuelo (dos por hilo), así que la
+ * memoria sigue acotada aunque el disco sea más lento que la CPU.
+ */
+class ExportacionParalela {
+    private static final int FIGURAS_POR_TROZO = 4096;
+
+    // Cada hilo del pool reutiliza su búfer de caracteres entre trozos
+    private static final ThreadLocal<BufferSVG> BUFERES =
+        ThreadLocal.withInitial(() -> new BufferSVG(256 * 1024));
+
+    private final ExportadorSVG exportador;
+    private final ForkJoinPool pool;
+
+    ExportacionParalela(ExportadorSVG exportador, ForkJoinPool pool) {
+        this.exportador = exportador;
+        this.pool = pool;
+    }
+
+    /**
+     * Escribe el documento completo en el archivo (que no debe existir).
+     *
+     * @throws CancellationException si el listener pide cancelar
+     */
+    void escribir(List<Figura> figuras, Path archivo, ProgresoListener progreso) throws IOException {
+        int total = figuras.size();
+        int maxEnVuelo = Math.max(2, pool.getParallelism() * 2);
+        ArrayDeque<CompletableFuture<ByteBuffer>> enVuelo = new ArrayDeque<>();
+        try (FileChannel canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            BufferSVG cabecera = new BufferSVG();
+            exportador.escribirCabecera(cabecera);
+            escribirTodo(canal, codificar(cabecera));
+
+            int siguiente = 0;   // primera figura aún no encargada
+            int escritas = 0;
+            try {
+                while (escritas < total) {
+                    while (siguiente < total && enVuelo.size() < maxEnVuelo) {
+                        int desde = siguiente;
+                        int hasta = Math.min(total, desde + FIGURAS_POR_TROZO);
+                        enVuelo.add(CompletableFuture.supplyAsync(
+                            () -> serializar(figuras, desde, hasta), pool));
+                        siguiente = hasta;
+                    }
+                    escribirTodo(canal, esperar(enVuelo.poll()));
+                    escritas = Math.min(total, escritas + FIGURAS_POR_TROZO);
+                    if (!progreso.avanzar(escritas, total)) {
+                        throw new CancellationException("Exportación cancelada");
+                    }
+                }
+            } finally {
+                // Si se sale antes de tiempo, los trozos pendientes ya no hacen falta
+                for (CompletableFuture<ByteBuffer> f : enVuelo) {
+                    f.cancel(false);
+                }
+            }
+
+            BufferSVG pie = new BufferSVG();
+            exportador.escribirPie(pie);
+            escribirTodo(canal, codificar(pie));
+        }
+        progreso.avanzar(total, total);
+    }
+
+    private ByteBuffer serializar(List<Figura> figuras, int desde, int hasta) {
+        BufferSVG buf = BUFERES.get();
+        buf.clear();
+        try {
+            for (int i = desde; i < hasta; i++) {
+                exportador.escribirFigura(figuras.get(i), buf);
+            }
+            return codificar(buf);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static ByteBuffer codificar(BufferSVG buf) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newEncoder()
+            .encode(CharBuffer.wrap(buf.getDatos(), 0, buf.length()));
+    }
+
+    private static ByteBuffer esperar(CompletableFuture<ByteBuffer> trozo) throws IOException {
+        try {
+            return trozo.join();
+        } catch (CompletionException ex) {
+            Throwable causa = ex.getCause();
+            if (causa instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) causa).getCause();
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw ex;
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            canal.write(datos);
+        }
+    }
+}
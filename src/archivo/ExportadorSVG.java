@@ -0,0 +1,207 @@
+package archivo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import model.BufferSVG;
+import model.Figura;
+import model.FormatoSVG;
+import model.ProgresoListener;
+
+/**
+ * Escribe un documento SVG con las figuras dadas, figura a figura.
+ *
+ * Cada figura escribe su etiqueta directamente en el Writer (ver
+ * Figura.escribirSVG), así que no se construye el documento completo en
+ * memoria: el consumo es el mismo para diez figuras que para un millón y
+ * los datos empiezan a llegar al disco desde la primera.
+ *
+ * El archivo se escribe primero como temporal y se renombra al terminar
+ * (ver EscrituraAtomica), así que cancelar o fallar nunca deja un SVG a medias.
+ *
+ * A partir de UMBRAL_PARALELO figuras, y si hay más de un procesador, la
+ * serialización se reparte entre varios hilos (ver ExportacionParalela);
+ * el archivo resultante es el mismo.
+ *
+ * Opciones de salida:
+ *  - comprimido: el documento pasa por un GZIPOutputStream (archivo .svgz).
+ *  - minificado: sin sangría ni saltos de línea, colores en hexadecimal y
+ *    las figuras consecutivas con el mismo trazo y relleno dentro de un
+ *    mismo &lt;g stroke="..." fill="..."&gt;, en lugar de repetir los colores
+ *    en cada etiqueta.
+ * Con cualquiera de las dos la exportación es siempre secuencial.
+ */
+public class ExportadorSVG {
+    // Tamaño del búfer del Writer de salida
+    private static final int TAMANO_BUFER = 64 * 1024;
+    // Al pasar de este tamaño, el BufferSVG intermedio se vuelca al Writer
+    private static final int UMBRAL_VOLCADO = 32 * 1024;
+    // Cada cuántas figuras se informa del progreso
+    private static final int FIGURAS_POR_AVISO = 1000;
+    // Por debajo de este número de figuras no compensa repartir el trabajo
+    private static final int UMBRAL_PARALELO = 50_000;
+
+    private final int ancho;
+    private final int alto;
+    private boolean paralelo = true;
+    private boolean comprimido = false;
+    private boolean minificado = false;
+
+    /**
+     * @param ancho ancho del documento (atributo width), normalmente el del lienzo
+     * @param alto alto del documento (atributo height)
+     */
+    public ExportadorSVG(int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+    }
+
+    /**
+     * Permite (true, por defecto) o impide usar varios hilos en dibujos grandes.
+     */
+    public void setParalelo(boolean paralelo) {
+        this.paralelo = paralelo;
+    }
+
+    /**
+     * Comprime la salida con gzip (formato .svgz).
+     */
+    public void setComprimido(boolean comprimido) {
+        this.comprimido = comprimido;
+    }
+
+    /**
+     * Escribe el SVG minificado (ver la descripción de la clase).
+     */
+    public void setMinificado(boolean minificado) {
+        this.minificado = minificado;
+    }
+
+    /**
+     * Escribe el documento en el archivo (UTF-8), sustituyéndolo si existe.
+     */
+    public void exportar(List<Figura> figuras, Path destino) throws IOException {
+        exportar(figuras, destino, ProgresoListener.NINGUNO);
+    }
+
+    /**
+     * Como exportar(figuras, destino), informando del progreso.
+     *
+     * @param figuras figuras a exportar; no deben cambiar mientras tanto
+     *                (p. ej. LienzoModel.getInstantanea())
+     * @throws CancellationException si el listener pide cancelar; el destino no se toca
+     */
+    public void exportar(List<Figura> figuras, Path destino, ProgresoListener progreso)
+            throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (paralelo && !comprimido && !minificado
+                && figuras.size() >= UMBRAL_PARALELO && pool.getParallelism() > 1) {
+            EscrituraAtomica.escribir(destino, temporal ->
+                new ExportacionParalela(this, pool).escribir(figuras, temporal, progreso));
+            return;
+        }
+        EscrituraAtomica.escribir(destino, temporal -> {
+            try (OutputStream archivo = Files.newOutputStream(temporal,
+                         StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 OutputStream datos = comprimido
+                         ? new GZIPOutputStream(archivo, TAMANO_BUFER) : archivo;
+                 Writer out = new BufferedWriter(
+                         new OutputStreamWriter(datos, StandardCharsets.UTF_8), TAMANO_BUFER)) {
+                escribir(figuras, out, progreso);
+            }
+        });
+    }
+
+    /**
+     * Escribe el documento completo en out (no lo cierra).
+     */
+    public void escribir(List<Figura> figuras, Writer out) throws IOException {
+        escribir(figuras, out, ProgresoListener.NINGUNO);
+    }
+
+    /**
+     * Como escribir(figuras, out), informando del progreso cada FIGURAS_POR_AVISO figuras.
+     *
+     * @throws CancellationException si el listener pide cancelar
+     */
+    public void escribir(List<Figura> figuras, Writer out, ProgresoListener progreso)
+            throws IOException {
+        int total = figuras.size();
+        int escritas = 0;
+        // Las figuras escriben en un BufferSVG (sin objetos intermedios)
+        // que se vuelca al Writer por bloques
+        BufferSVG buf = new BufferSVG(UMBRAL_VOLCADO + 4096);
+        escribirCabecera(buf);
+        // Colores del grupo <g> abierto (solo en modo minificado)
+        boolean grupoAbierto = false;
+        int trazoGrupo = 0, rellenoGrupo = 0;
+        for (Figura f : figuras) {
+            if (minificado) {
+                int trazo = f.getRgbTrazoSVG();
+                int relleno = f.getRgbRellenoSVG();
+                if (!grupoAbierto || trazo != trazoGrupo || relleno != rellenoGrupo) {
+                    if (grupoAbierto) {
+                        buf.append("</g>");
+                    }
+                    buf.append("<g stroke=\"").append(FormatoSVG.hex(trazo))
+                       .append("\" fill=\"").append(FormatoSVG.hex(relleno)).append("\">");
+                    grupoAbierto = true;
+                    trazoGrupo = trazo;
+                    rellenoGrupo = relleno;
+                }
+                f.escribirGeometriaSVG(buf);
+            } else {
+                escribirFigura(f, buf);
+            }
+            if (buf.length() >= UMBRAL_VOLCADO) {
+                buf.escribirEn(out);
+                buf.clear();
+            }
+            escritas++;
+            if (escritas % FIGURAS_POR_AVISO == 0 && !progreso.avanzar(escritas, total)) {
+                throw new CancellationException("Exportación cancelada");
+            }
+        }
+        if (grupoAbierto) {
+            buf.append("</g>");
+        }
+        escribirPie(buf);
+        buf.escribirEn(out);
+        progreso.avanzar(total, total);
+    }
+
+    /**
+     * Una línea del documento: la etiqueta de la figura con sangría y salto de línea.
+     */
+    void escribirFigura(Figura f, Appendable out) throws IOException {
+        out.append("  ");
+        f.escribirSVG(out);
+        out.append('\n');
+    }
+
+    void escribirCabecera(Appendable out) throws IOException {
+        if (!minificado) {
+            out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        }
+        out.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"")
+           .append(Integer.toString(ancho))
+           .append("\" height=\"")
+           .append(Integer.toString(alto))
+           .append(minificado ? "\">" : "\">\n");
+    }
+
+    void escribirPie(Appendable out) throws IOException {
+        out.append(minificado ? "</svg>" : "</svg>\n");
+    }
+}
@@ -1,22 +1,31 @@
 package controller;
 
 import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.sql.SQLException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.regex.Pattern;
-import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
+import javax.swing.AbstractAction;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JComponent;
 import javax.swing.JColorChooser;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import javax.swing.JSlider;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.event.MouseInputAdapter;
 
@@ -26,15 +35,20 @@ import model.LienzoModel;
 import model.LineaFigura;
 import model.PoligonoIrregularFigura;
 import model.PoligonoRegularFigura;
+import model.PolilineaEnConstruccion;
 import model.PuntoFigura;
 import view.CanvasPanel;
 import view.MainFrame;
-import dao.DibujoDAO;
-import dao.FiguraDAO;
+import dao.PersistenciaAsincrona;
+import archivo.ArchivoDibujo;
+import archivo.ArchivosAsincronos;
+import archivo.ExportadorSVG;
 
 /**
  * MainController: Registra todos los listeners y coordina 
  * Model (LienzoModel, DAOs) y View (MainFrame, CanvasPanel).
+ * Las operaciones de BD se lanzan en segundo plano (PersistenciaAsincrona)
+ * y solo la actualización final del modelo y la vista vuelve al EDT.
  */
 public class MainController {
     private final MainFrame view;
@@ -46,10 +60,15 @@ public class MainController {
 
     // Estado temporal para dibujar cada figura:
     private int x0, y0;
-    private java.util.List<Point> verticesTemp = new java.util.ArrayList<>();
+    private final PolilineaEnConstruccion polilinea = new PolilineaEnConstruccion();
     private boolean enModoDibujar = false;
     private Figura figuraTemporal; // se manda al canvas
 
+    // Guardar/cargar se ejecutan fuera del EDT
+    private final PersistenciaAsincrona persistencia = new PersistenciaAsincrona();
+    private final ArchivosAsincronos archivos = new ArchivosAsincronos();
+    private boolean operacionEnCurso = false;
+
     public MainController(MainFrame view) {
         this.view = view;
         this.model = view.getLienzoModel();
@@ -69,7 +88,8 @@ public class MainController {
             boolean esPolIrregular = "Pol. irregular".equals(seleccionado);
             view.getBtnFinalizarPoligono().setEnabled(esPolIrregular);
             if (!esPolIrregular) {
-                verticesTemp.clear();
+                polilinea.clear();
+                view.getCanvas().ocultarPolilinea();
                 view.getCanvas().clearFiguraTemporal();
                 enModoDibujar = false;
             }
@@ -102,7 +122,7 @@ public class MainController {
         // 4) Botón “Finalizar Pol. Irr.”
         JButton btnFinalizar = view.getBtnFinalizarPoligono();
         btnFinalizar.addActionListener(e -> {
-            if (verticesTemp.size() < 3) {
+            if (polilinea.tamano() < 3) {
                 JOptionPane.showMessageDialog(
                     view,
                     "Para un polígono irregular debes hacer al menos 3 clics."
@@ -111,7 +131,7 @@ public class MainController {
             }
 
             // Nueva lógica: si hay intersección, eliminar figura
-            if (hayInterseccionEntreVertices(verticesTemp)) {
+            if (polilinea.hayAutoInterseccion()) {
                 JOptionPane.showOptionDialog(
                     view,
                     "Operación no permitida: Los lados se cruzan",
@@ -123,22 +143,18 @@ public class MainController {
                     "Aceptar"
                 );
                 // Limpiar estado y descartar vértices
-                verticesTemp.clear();
+                polilinea.clear();
                 enModoDibujar = false;
-                view.getCanvas().clearFiguraTemporal();
+                view.getCanvas().ocultarPolilinea();
                 return;
             }
 
             // Crear y agregar el polígono regular (o complejo)
-            PoligonoIrregularFigura pIrr = new PoligonoIrregularFigura(
-                new ArrayList<>(verticesTemp),
-                colorTrazo, colorRelleno, true
-            );
+            PoligonoIrregularFigura pIrr = polilinea.aFigura(colorTrazo, colorRelleno, true);
             model.agregarFigura(pIrr);
-            verticesTemp.clear();
+            polilinea.clear();
             enModoDibujar = false;
-            view.getCanvas().clearFiguraTemporal();
-            view.getCanvas().repaint();
+            view.getCanvas().ocultarPolilinea();
             actualizarBotones();
         });
 
@@ -175,46 +191,8 @@ public class MainController {
                 return;
             }
 
-            try {
-                DibujoDAO dibujoDAO = new DibujoDAO();
-                FiguraDAO figuraDAO = new FiguraDAO();
-                int idDibujo;
-                try {
-                    idDibujo = dibujoDAO.crearDibujo(nombre);
-                } catch (SQLException ex) {
-                    if (ex.getMessage().contains("Duplicate") || ex.getErrorCode() == 1062) {
-                        int resp2 = JOptionPane.showConfirmDialog(
-                            view,
-                            "El nombre ya existe. ¿Deseas sobrescribir el dibujo existente?",
-                            "Confirmar sobrescritura",
-                            JOptionPane.YES_NO_OPTION
-                        );
-                        if (resp2 == JOptionPane.YES_OPTION) {
-                            idDibujo = dibujoDAO.obtenerIdPorNombre(nombre);
-                            figuraDAO.eliminarFigurasDeDibujo(idDibujo);
-                        } else {
-                            return;
-                        }
-                    } else {
-                        throw ex;
-                    }
-                }
-                List<Figura> figs = model.getFiguras();
-                for (int i = 0; i < figs.size(); i++) {
-                    figuraDAO.guardarFigura(idDibujo, figs.get(i), i);
-                }
-                view.setNombreActual(nombre);
-                JOptionPane.showMessageDialog(
-                    view,
-                    "Dibujo '" + nombre + "' guardado correctamente."
-                );
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(
-                    view,
-                    "Error al guardar dibujo: " + ex.getMessage()
-                );
-                ex.printStackTrace();
-            }
+            // Se guarda una copia: el usuario puede seguir dibujando mientras tanto
+            guardarDibujo(nombre, model.getInstantanea(), false);
         });
 
         // 6) Botón “Cargar dibujo”
@@ -229,51 +207,39 @@ public class MainController {
                 );
                 if (resp2 != JOptionPane.YES_OPTION) return;
             }
-            try {
-                DibujoDAO dibujoDAO = new DibujoDAO();
-                FiguraDAO figuraDAO = new FiguraDAO();
-                java.util.List<String> nombres = dibujoDAO.listarNombresDibujos();
-                if (nombres.isEmpty()) {
-                    JOptionPane.showMessageDialog(
-                        view,
-                        "No hay dibujos guardados."
-                    );
-                    return;
-                }
-                String seleccionado = (String) JOptionPane.showInputDialog(
-                    view,
-                    "Selecciona un dibujo:",
-                    "Cargar dibujo",
-                    JOptionPane.PLAIN_MESSAGE,
-                    null,
-                    nombres.toArray(),
-                    nombres.get(0)
-                );
-                if (seleccionado == null) return;
-                int idDibujo = dibujoDAO.obtenerIdPorNombre(seleccionado);
-                if (idDibujo < 0) {
-                    JOptionPane.showMessageDialog(
+            setOperacionEnCurso(true);
+            persistencia.listarNombresDibujos().whenComplete((nombres, error) ->
+                SwingUtilities.invokeLater(() -> {
+                    setOperacionEnCurso(false);
+                    Throwable causa = causaReal(error);
+                    if (causa != null) {
+                        JOptionPane.showMessageDialog(
+                            view,
+                            "Error al cargar dibujo: " + causa.getMessage()
+                        );
+                        causa.printStackTrace();
+                        return;
+                    }
+                    if (nombres.isEmpty()) {
+                        JOptionPane.showMessageDialog(
+                            view,
+                            "No hay dibujos guardados."
+                        );
+                        return;
+                    }
+                    String seleccionado = (String) JOptionPane.showInputDialog(
                         view,
-                        "Error: no se encontró ese dibujo en la base de datos."
+                        "Selecciona un dibujo:",
+                        "Cargar dibujo",
+                        JOptionPane.PLAIN_MESSAGE,
+                        null,
+                        nombres.toArray(),
+                        nombres.get(0)
                     );
-                    return;
-                }
-                java.util.List<Figura> figs = figuraDAO.cargarFigurasPorDibujo(idDibujo);
-                model.clear();
-                for (Figura f : figs) {
-                    model.agregarFigura(f);
-                }
-                view.setNombreActual(seleccionado);
-                view.getCanvas().clearFiguraTemporal();
-                view.getCanvas().repaint();
-                actualizarBotones();
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(
-                    view,
-                    "Error al cargar dibujo: " + ex.getMessage()
-                );
-                ex.printStackTrace();
-            }
+                    if (seleccionado == null) return;
+                    cargarDibujo(seleccionado);
+                })
+            );
         });
 
         // 7) Botón “Exportar a SVG”
@@ -291,46 +257,365 @@ public class MainController {
             FileNameExtensionFilter filtro = new FileNameExtensionFilter(
                 "Archivos SVG", "svg"
             );
+            FileNameExtensionFilter filtroComprimido = new FileNameExtensionFilter(
+                "SVG comprimido (gzip)", "svgz"
+            );
+            chooser.addChoosableFileFilter(filtro);
+            chooser.addChoosableFileFilter(filtroComprimido);
             chooser.setFileFilter(filtro);
+            JCheckBox chkMinificado = new JCheckBox("Minificado");
+            chkMinificado.setToolTipText(
+                "Sin espacios, colores en hexadecimal y figuras del mismo color agrupadas"
+            );
+            chooser.setAccessory(chkMinificado);
 
             int seleccion = chooser.showSaveDialog(view);
             if (seleccion != JFileChooser.APPROVE_OPTION) return;
             File archivo = chooser.getSelectedFile();
             String ruta = archivo.getAbsolutePath();
-            if (!ruta.toLowerCase().endsWith(".svg")) {
-                archivo = new File(ruta + ".svg");
+            boolean comprimido = ruta.toLowerCase().endsWith(".svgz")
+                    || (chooser.getFileFilter() == filtroComprimido
+                        && !ruta.toLowerCase().endsWith(".svg"));
+            String extension = comprimido ? ".svgz" : ".svg";
+            if (!ruta.toLowerCase().endsWith(extension)) {
+                archivo = new File(ruta + extension);
             }
-            String svgContent = generarSVG(view.getCanvas(), model);
-            try (FileWriter writer = new FileWriter(archivo)) {
-                writer.write(svgContent);
-                JOptionPane.showMessageDialog(
-                    view,
-                    "SVG guardado en: " + archivo.getAbsolutePath()
-                );
-            } catch (IOException ex) {
+            CanvasPanel lienzo = view.getCanvas();
+            ExportadorSVG exportador = new ExportadorSVG(lienzo.getWidth(), lienzo.getHeight());
+            exportador.setComprimido(comprimido);
+            exportador.setMinificado(chkMinificado.isSelected());
+            exportarSVG(exportador, model.getInstantanea(), archivo);
+        });
+
+        // 7b) Botones “Guardar en archivo” / “Abrir archivo” (formato binario propio)
+        view.getBtnGuardarArchivo().addActionListener(e -> {
+            if (model.getFiguras().isEmpty()) {
                 JOptionPane.showMessageDialog(
                     view,
-                    "Error al guardar SVG: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE
+                    "No hay figuras para guardar."
                 );
-                ex.printStackTrace();
+                return;
             }
+            JFileChooser chooser = crearSelectorArchivoDibujo("Guardar dibujo en archivo");
+            if (chooser.showSaveDialog(view) != JFileChooser.APPROVE_OPTION) return;
+            File archivo = chooser.getSelectedFile();
+            String extension = "." + ArchivoDibujo.EXTENSION;
+            if (!archivo.getName().toLowerCase().endsWith(extension)) {
+                archivo = new File(archivo.getAbsolutePath() + extension);
+            }
+            guardarEnArchivo(model.getInstantanea(), archivo);
+        });
+        view.getBtnAbrirArchivo().addActionListener(e -> {
+            JFileChooser chooser = crearSelectorArchivoDibujo("Abrir archivo de dibujo");
+            if (chooser.showOpenDialog(view) != JFileChooser.APPROVE_OPTION) return;
+            abrirArchivo(chooser.getSelectedFile());
         });
 
-        // 8) MouseListener & MouseMotionListener para el canvas
+        // 8) MouseListener & MouseMotionListener para el canvas.
+        //    Clic y movimiento se pasan a coordenadas del lienzo; arrastrar
+        //    con el botón central (o con la barra espaciadora pulsada)
+        //    desplaza la vista y la rueda acerca/aleja (ver CanvasPanel).
+        //    Cualquier otro arrastre solo mueve la vista previa
         CanvasPanel canvas = view.getCanvas();
-        canvas.addMouseListener(new MouseInputAdapter() {
+        //    La barra espaciadora solo llega al lienzo si tiene el foco (si no,
+        //    la recibiría el último botón pulsado y lo volvería a activar):
+        //    el lienzo lo toma al entrar el ratón o al pulsar sobre él
+        boolean[] espacioPulsado = { false };
+        canvas.setFocusable(true);
+        canvas.getInputMap(JComponent.WHEN_FOCUSED)
+              .put(KeyStroke.getKeyStroke("pressed SPACE"), "espacioPulsado");
+        canvas.getInputMap(JComponent.WHEN_FOCUSED)
+              .put(KeyStroke.getKeyStroke("released SPACE"), "espacioSoltado");
+        canvas.getActionMap().put("espacioPulsado", new AbstractAction() {
             @Override
-            public void mouseClicked(MouseEvent e) {
-                manejarMouseClicked(e.getX(), e.getY(), canvas);
+            public void actionPerformed(ActionEvent e) {
+                espacioPulsado[0] = true;
             }
         });
-        canvas.addMouseMotionListener(new MouseInputAdapter() {
+        canvas.getActionMap().put("espacioSoltado", new AbstractAction() {
             @Override
-            public void mouseMoved(MouseEvent e) {
-                manejarMouseMoved(e.getX(), e.getY(), canvas);
+            public void actionPerformed(ActionEvent e) {
+                espacioPulsado[0] = false;
+            }
+        });
+        canvas.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                // Sin foco no llegaría el "released SPACE"
+                espacioPulsado[0] = false;
             }
         });
+        MouseInputAdapter raton = new MouseInputAdapter() {
+            private int arrastreX, arrastreY;
+            // El botón pulsado desplaza la vista en lugar de dibujar
+            private boolean desplazando;
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                // Soltar sin mover tras pulsar para desplazar no es un clic de dibujo
+                if (desplazando) return;
+                Point p = canvas.aCoordenadasLienzo(e.getX(), e.getY());
+                manejarMouseClicked(p.x, p.y, canvas);
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                Point p = canvas.aCoordenadasLienzo(e.getX(), e.getY());
+                manejarMouseMoved(p.x, p.y, canvas);
+            }
+
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                canvas.requestFocusInWindow();
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                canvas.requestFocusInWindow();
+                desplazando = SwingUtilities.isMiddleMouseButton(e)
+                    || (SwingUtilities.isLeftMouseButton(e) && espacioPulsado[0]);
+                if (desplazando) {
+                    canvas.setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+                }
+                arrastreX = e.getX();
+                arrastreY = e.getY();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (desplazando) {
+                    canvas.setCursor(Cursor.getDefaultCursor());
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (desplazando) {
+                    canvas.desplazar(e.getX() - arrastreX, e.getY() - arrastreY);
+                    arrastreX = e.getX();
+                    arrastreY = e.getY();
+                }
+                // La vista previa sigue al cursor, que ahora está sobre otro punto
+                mouseMoved(e);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                // Rueda hacia delante (rotación negativa) = acercar
+                canvas.zoom(-e.getWheelRotation(), e.getX(), e.getY());
+                mouseMoved(e);
+            }
+        };
+        canvas.addMouseListener(raton);
+        canvas.addMouseMotionListener(raton);
+        canvas.addMouseWheelListener(raton);
+    }
+
+    /**
+     * Guarda las figuras en segundo plano. Si el nombre ya existe, pregunta
+     * si sobrescribir y, en ese caso, repite el guardado sobre el dibujo existente.
+     */
+    private void guardarDibujo(String nombre, List<Figura> figuras, boolean sobrescribir) {
+        MonitorProgreso monitor = new MonitorProgreso(view, "Guardando dibujo '" + nombre + "'...");
+        setOperacionEnCurso(true);
+        persistencia.guardarDibujo(nombre, figuras, sobrescribir, monitor).whenComplete((id, error) ->
+            SwingUtilities.invokeLater(() -> {
+                monitor.cerrar();
+                setOperacionEnCurso(false);
+                Throwable causa = causaReal(error);
+                if (causa == null) {
+                    view.setNombreActual(nombre);
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Dibujo '" + nombre + "' guardado correctamente."
+                    );
+                } else if (causa instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Guardado cancelado; el dibujo no se ha modificado."
+                    );
+                } else if (!sobrescribir && PersistenciaAsincrona.esNombreDuplicado(causa)) {
+                    int resp2 = JOptionPane.showConfirmDialog(
+                        view,
+                        "El nombre ya existe. ¿Deseas sobrescribir el dibujo existente?",
+                        "Confirmar sobrescritura",
+                        JOptionPane.YES_NO_OPTION
+                    );
+                    if (resp2 == JOptionPane.YES_OPTION) {
+                        guardarDibujo(nombre, figuras, true);
+                    }
+                } else {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Error al guardar dibujo: " + causa.getMessage()
+                    );
+                    causa.printStackTrace();
+                }
+            })
+        );
+    }
+
+    /**
+     * Carga el dibujo en segundo plano y, ya en el EDT, sustituye el contenido del modelo.
+     */
+    private void cargarDibujo(String nombre) {
+        MonitorProgreso monitor = new MonitorProgreso(view, "Cargando dibujo '" + nombre + "'...");
+        setOperacionEnCurso(true);
+        persistencia.cargarDibujo(nombre, monitor).whenComplete((figs, error) ->
+            SwingUtilities.invokeLater(() -> {
+                monitor.cerrar();
+                setOperacionEnCurso(false);
+                Throwable causa = causaReal(error);
+                if (causa instanceof CancellationException) {
+                    return;
+                }
+                if (causa != null) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Error al cargar dibujo: " + causa.getMessage()
+                    );
+                    causa.printStackTrace();
+                    return;
+                }
+                model.clear();
+                for (Figura f : figs) {
+                    model.agregarFigura(f);
+                }
+                view.setNombreActual(nombre);
+                view.getCanvas().clearFiguraTemporal();
+                actualizarBotones();
+            })
+        );
+    }
+
+    /**
+     * Exporta la instantánea de figuras en segundo plano. Si se cancela o
+     * falla, el archivo de destino queda como estaba.
+     */
+    private void exportarSVG(ExportadorSVG exportador, List<Figura> figuras, File archivo) {
+        MonitorProgreso monitor = new MonitorProgreso(view, "Exportando a SVG...");
+        setOperacionEnCurso(true);
+        archivos.exportarSVG(exportador, figuras, archivo.toPath(), monitor).whenComplete((ruta, error) ->
+            SwingUtilities.invokeLater(() -> {
+                monitor.cerrar();
+                setOperacionEnCurso(false);
+                Throwable causa = causaReal(error);
+                if (causa == null) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "SVG guardado en: " + archivo.getAbsolutePath()
+                    );
+                } else if (causa instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Exportación cancelada; no se ha escrito ningún archivo."
+                    );
+                } else {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Error al guardar SVG: " + causa.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE
+                    );
+                    causa.printStackTrace();
+                }
+            })
+        );
+    }
+
+    private JFileChooser crearSelectorArchivoDibujo(String titulo) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(titulo);
+        chooser.setFileFilter(new FileNameExtensionFilter(
+            "Dibujos (*." + ArchivoDibujo.EXTENSION + ")", ArchivoDibujo.EXTENSION
+        ));
+        return chooser;
+    }
+
+    /**
+     * Guarda la instantánea de figuras en un archivo binario, en segundo plano.
+     */
+    private void guardarEnArchivo(List<Figura> figuras, File archivo) {
+        MonitorProgreso monitor = new MonitorProgreso(view, "Guardando en archivo...");
+        setOperacionEnCurso(true);
+        archivos.guardarDibujo(figuras, archivo.toPath(), monitor).whenComplete((ruta, error) ->
+            SwingUtilities.invokeLater(() -> {
+                monitor.cerrar();
+                setOperacionEnCurso(false);
+                Throwable causa = causaReal(error);
+                if (causa == null) {
+                    view.setNombreActual(archivo.getName());
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Dibujo guardado en: " + archivo.getAbsolutePath()
+                    );
+                } else if (causa instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Guardado cancelado; no se ha escrito ningún archivo."
+                    );
+                } else {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Error al guardar archivo: " + causa.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE
+                    );
+                    causa.printStackTrace();
+                }
+            })
+        );
+    }
+
+    /**
+     * Lee un archivo binario en segundo plano y, ya en el EDT, sustituye el contenido del modelo.
+     */
+    private void abrirArchivo(File archivo) {
+        MonitorProgreso monitor = new MonitorProgreso(view, "Abriendo " + archivo.getName() + "...");
+        setOperacionEnCurso(true);
+        archivos.abrirDibujo(archivo.toPath(), monitor).whenComplete((figs, error) ->
+            SwingUtilities.invokeLater(() -> {
+                monitor.cerrar();
+                setOperacionEnCurso(false);
+                Throwable causa = causaReal(error);
+                if (causa instanceof CancellationException) {
+                    return;
+                }
+                if (causa != null) {
+                    JOptionPane.showMessageDialog(
+                        view,
+                        "Error al abrir archivo: " + causa.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE
+                    );
+                    causa.printStackTrace();
+                    return;
+                }
+                model.clear();
+                for (Figura f : figs) {
+                    model.agregarFigura(f);
+                }
+                view.setNombreActual(archivo.getName());
+                view.getCanvas().clearFiguraTemporal();
+                actualizarBotones();
+            })
+        );
+    }
+
+    /**
+     * Desactiva Guardar/Cargar/Exportar mientras hay una operación en segundo plano.
+     */
+    private void setOperacionEnCurso(boolean enCurso) {
+        operacionEnCurso = enCurso;
+        actualizarBotones();
+    }
+
+    /**
+     * Extrae la excepción original de la envoltura de CompletableFuture.
+     */
+    private static Throwable causaReal(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof UncheckedIOException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
     }
 
     private void manejarMouseClicked(int x, int y, CanvasPanel canvas) {
@@ -346,7 +631,6 @@ public class MainController {
                 PuntoFigura pf = new PuntoFigura(x, y, cT);
                 model.agregarFigura(pf);
                 canvas.clearFiguraTemporal();
-                canvas.repaint();
                 actualizarBotones();
                 break;
 
@@ -361,7 +645,6 @@ public class MainController {
                     model.agregarFigura(lf);
                     enModoDibujar = false;
                     canvas.clearFiguraTemporal();
-                    canvas.repaint();
                     actualizarBotones();
                 }
                 break;
@@ -380,7 +663,6 @@ public class MainController {
                     model.agregarFigura(cf);
                     enModoDibujar = false;
                     canvas.clearFiguraTemporal();
-                    canvas.repaint();
                     actualizarBotones();
                 }
                 break;
@@ -406,18 +688,19 @@ public class MainController {
                     model.agregarFigura(prf);
                     enModoDibujar = false;
                     canvas.clearFiguraTemporal();
-                    canvas.repaint();
                     actualizarBotones();
                 }
                 break;
 
             case "Pol. irregular":
-                verticesTemp.add(new Point(x, y));
-                if (verticesTemp.size() >= 2) {
-                    PoligonoIrregularFigura pirTemp = new PoligonoIrregularFigura(
-                        verticesTemp, cT, cR, rell
-                    );
-                    canvas.setFiguraTemporal(pirTemp);
+                // Solo se pintan el lado nuevo y la banda elástica (sin relleno
+                // hasta finalizar); ver CanvasPanel.mostrarPolilinea
+                polilinea.agregar(x, y);
+                enModoDibujar = true;
+                if (polilinea.tamano() == 1) {
+                    canvas.mostrarPolilinea(polilinea, cT);
+                } else {
+                    canvas.verticeAgregado();
                 }
                 break;
         }
@@ -454,94 +737,24 @@ public class MainController {
                 );
                 canvas.setFiguraTemporal(figuraTemporal);
                 break;
+            case "Pol. irregular":
+                canvas.moverCursorPolilinea(x, y);
+                break;
             default:
                 break;
         }
     }
 
-    /**
-     * Construye el contenido SVG para todas las figuras actuales en el modelo.
-     */
-    private String generarSVG(CanvasPanel canvas, LienzoModel model) {
-        int width = canvas.getWidth();
-        int height = canvas.getHeight();
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        sb.append(String.format(
-            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\">\n",
-            width, height
-        ));
-        for (Figura f : model.getFiguras()) {
-            sb.append("  ").append(f.toSVG()).append("\n");
-        }
-        sb.append("</svg>\n");
-        return sb.toString();
-    }
-
     /**
      * Actualiza el estado (habilitado/deshabilitado) de los botones Guardar y Exportar
      * según haya o no figuras en el lienzo.
      */
     private void actualizarBotones() {
         boolean hayFiguras = !model.getFiguras().isEmpty();
-        view.getBtnGuardar().setEnabled(hayFiguras);
-        view.getBtnExportarSVG().setEnabled(hayFiguras);
-    }
-
-    /**
-     * Comprueba si la lista de vertices (en orden) tiene algún par
-     * de segmentos que se cruza (ignora adyacentes).
-     */
-    private boolean hayInterseccionEntreVertices(List<Point> v) {
-        int n = v.size();
-        if (n < 4) return false;
-        for (int i = 0; i < n - 1; i++) {
-            Point a1 = v.get(i);
-            Point a2 = v.get(i + 1);
-            for (int j = i + 2; j < n - 1; j++) {
-                if (i == 0 && j == n - 2) continue;
-                Point b1 = v.get(j);
-                Point b2 = v.get(j + 1);
-                if (segmentosSeIntersectan(
-                        a1.x, a1.y, a2.x, a2.y,
-                        b1.x, b1.y, b2.x, b2.y)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Determina si dos segmentos (x1,y1)-(x2,y2) y (x3,y3)-(x4,y4) se cruzan.
-     */
-    private boolean segmentosSeIntersectan(
-            int x1, int y1, int x2, int y2,
-            int x3, int y3, int x4, int y4) {
-        java.util.function.BiFunction<Point, Point, Point> sub =
-            (p, q) -> new Point(p.x - q.x, p.y - q.y);
-        java.util.function.BiFunction<Point, Point, Long> cross =
-            (p, q) -> (long) p.x * q.y - (long) p.y * q.x;
-
-        Point A = new Point(x1, y1);
-        Point B = new Point(x2, y2);
-        Point C = new Point(x3, y3);
-        Point D = new Point(x4, y4);
-
-        Point AB = sub.apply(B, A);
-        Point AC = sub.apply(C, A);
-        Point AD = sub.apply(D, A);
-        Point CD = sub.apply(D, C);
-        Point CA = sub.apply(A, C);
-        Point CB = sub.apply(B, C);
-
-        long cross1 = cross.apply(AB, AC);
-        long cross2 = cross.apply(AB, AD);
-        long cross3 = cross.apply(CD, CA);
-        long cross4 = cross.apply(CD, CB);
-
-        return ( (cross1 > 0 && cross2 < 0 || cross1 < 0 && cross2 > 0)
-              && (cross3 > 0 && cross4 < 0 || cross3 < 0 && cross4 > 0) );
+        view.getBtnGuardar().setEnabled(hayFiguras && !operacionEnCurso);
+        view.getBtnCargar().setEnabled(!operacionEnCurso);
+        view.getBtnExportarSVG().setEnabled(hayFiguras && !operacionEnCurso);
+        view.getBtnGuardarArchivo().setEnabled(hayFiguras && !operacionEnCurso);
+        view.getBtnAbrirArchivo().setEnabled(!operacionEnCurso);
     }
 }
@@ -0,0 +1,51 @@
+package controller;
+
+import java.awt.Component;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+
+import model.ProgresoListener;
+
+/**
+ * Adapta un ProgressMonitor de Swing a ProgresoListener.
+ * El hilo de trabajo llama a avanzar(); la actualización del diálogo se
+ * hace en el EDT. Si el usuario pulsa "Cancelar", la siguiente llamada
+ * a avanzar() devuelve false.
+ *
+ * Debe crearse y cerrarse desde el EDT.
+ */
+class MonitorProgreso implements ProgresoListener {
+    private final ProgressMonitor monitor;
+    private volatile boolean cancelado = false;
+    private volatile boolean cerrado = false;
+
+    MonitorProgreso(Component padre, String mensaje) {
+        monitor = new ProgressMonitor(padre, mensaje, null, 0, 100);
+        // Solo aparece si la operación va a tardar más de medio segundo
+        monitor.setMillisToDecideToPopup(200);
+        monitor.setMillisToPopup(500);
+    }
+
+    @Override
+    public boolean avanzar(int procesadas, int total) {
+        SwingUtilities.invokeLater(() -> {
+            if (cerrado) return;
+            if (monitor.isCanceled()) {
+                cancelado = true;
+                return;
+            }
+            monitor.setMaximum(Math.max(total, 1));
+            monitor.setNote(procesadas + " / " + total + " figuras");
+            monitor.setProgress(procesadas);
+        });
+        return !cancelado;
+    }
+
+    /**
+     * Cierra el diálogo (si llegó a mostrarse).
+     */
+    void cerrar() {
+        cerrado = true;
+        monitor.close();
+    }
+}
@@ -0,0 +1,125 @@
+package dao;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import model.PoligonoIrregularFigura;
+
+/**
+ * Codifica la lista de vértices de un polígono irregular como un único BLOB
+ * (columna figuras.vertices_blob) en lugar de una fila por vértice.
+ *
+ * Formato: número de vértices como varint, seguido de cada vértice como
+ * diferencia (dx, dy) respecto al anterior (el primero respecto a 0,0),
+ * en zigzag + varint. Los vértices consecutivos de un trazo suelen estar
+ * cerca, así que la mayoría ocupa 2 bytes en lugar de una fila de InnoDB.
+ */
+public final class CodificadorVertices {
+
+    private CodificadorVertices() {
+    }
+
+    /**
+     * Codifica los vértices de un polígono irregular.
+     */
+    public static byte[] codificar(PoligonoIrregularFigura poligono) {
+        return codificar(poligono.getNumVertices(), poligono::getVerticeX, poligono::getVerticeY);
+    }
+
+    /**
+     * Codifica los n primeros vértices (xs[i], ys[i]).
+     */
+    public static byte[] codificar(int[] xs, int[] ys, int n) {
+        return codificar(n, i -> xs[i], i -> ys[i]);
+    }
+
+    /**
+     * El formato en sí: los dos métodos públicos solo cambian de dónde se
+     * lee el vértice i.
+     */
+    private static byte[] codificar(int n, IntUnaryOperator x, IntUnaryOperator y) {
+        // Estimación inicial: 5 bytes de cabecera + ~2 bytes por coordenada
+        byte[] buf = new byte[5 + n * 4];
+        int pos = escribirVarint(buf, 0, n);
+        int prevX = 0, prevY = 0;
+        for (int i = 0; i < n; i++) {
+            if (buf.length - pos < 10) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            int xi = x.applyAsInt(i);
+            int yi = y.applyAsInt(i);
+            pos = escribirVarint(buf, pos, zigzag(xi - prevX));
+            pos = escribirVarint(buf, pos, zigzag(yi - prevY));
+            prevX = xi;
+            prevY = yi;
+        }
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /**
+     * Decodifica un BLOB generado por codificar() directamente en dos arrays
+     * de enteros: resultado[0] = coordenadas x, resultado[1] = coordenadas y.
+     */
+    public static int[][] decodificar(byte[] datos) {
+        return decodificar(datos, 0, datos.length);
+    }
+
+    /**
+     * Igual que decodificar(byte[]), leyendo solo datos[desde .. desde+longitud),
+     * para no tener que copiar el BLOB si viene dentro de un array mayor.
+     */
+    public static int[][] decodificar(byte[] datos, int desde, int longitud) {
+        if (desde < 0 || longitud < 0 || longitud > datos.length - desde) {
+            throw new IllegalArgumentException(
+                "Rango " + desde + "+" + longitud + " fuera del array (" + datos.length + ")");
+        }
+        int fin = desde + longitud;
+        int[] pos = { desde };
+        int n = leerVarint(datos, pos, fin);
+        if (n < 0 || n > longitud) {
+            throw new IllegalArgumentException("BLOB de vértices corrupto (n=" + n + ")");
+        }
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int x = 0, y = 0;
+        for (int i = 0; i < n; i++) {
+            x += unzigzag(leerVarint(datos, pos, fin));
+            y += unzigzag(leerVarint(datos, pos, fin));
+            xs[i] = x;
+            ys[i] = y;
+        }
+        return new int[][] { xs, ys };
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static int escribirVarint(byte[] buf, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    private static int leerVarint(byte[] datos, int[] pos, int fin) {
+        int resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            if (pos[0] >= fin) {
+                throw new IllegalArgumentException("BLOB de vértices truncado");
+            }
+            byte b = datos[pos[0]++];
+            resultado |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return resultado;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo en BLOB de vértices");
+    }
+}
@@ -1,5 +1,6 @@
 package dao;
 
+import java.awt.GraphicsEnvironment;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -9,26 +10,44 @@ import javax.swing.JOptionPane;
 /**
  * Gestionar la conexión con MySQL, crear la base de datos si no existe
  * y crear tablas si no existen.
+ *
+ * Con -DDB_URL puede apuntarse a otro motor (p. ej. jdbc:h2:mem:paint):
+ * la creación de la base de datos solo se intenta con MySQL y las tablas
+ * se crean con el DDL que corresponda (EsquemaBD).
  */
 public class ConexionBD {
     private static final String DB_NAME = "paint_db";
     // URL base sin esquema para operaciones de nivel servidor
     private static final String BASE_URL =
         "jdbc:mysql://localhost:3306?useSSL=false&serverTimezone=UTC&characterEncoding=UTF-8";
-    // URL con el esquema específico
-    private static final String DB_URL =
+    // URL con el esquema específico (-DDB_URL permite apuntar a otra BD, p. ej. H2 embebida).
+    // rewriteBatchedStatements hace que Connector/J envíe cada lote como un INSERT multi-fila.
+    private static final String DB_URL = System.getProperty("DB_URL",
         "jdbc:mysql://localhost:3306/" + DB_NAME +
-        "?useSSL=false&serverTimezone=UTC&characterEncoding=UTF-8";
-    private static final String USER = "desarrollo";
-    private static final String PASS = "desarrollo";
+        "?useSSL=false&serverTimezone=UTC&characterEncoding=UTF-8&rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("DB_USER", "desarrollo");
+    private static final String PASS = System.getProperty("DB_PASS", "desarrollo");
 
     private static ConexionBD instancia = null;
 
+    private final PoolConexiones pool;
+
     private ConexionBD() {
-        // 1) Verificar que la base de datos existe; si no, intentar crearla
-        ensureDatabaseExists();
-        // 2) Crear tablas necesarias dentro de la base de datos
+        // 1) Verificar que la base de datos existe; si no, intentar crearla (solo MySQL)
+        if (DB_URL.startsWith("jdbc:mysql:")) {
+            ensureDatabaseExists();
+        }
+        // 2) Abrir el pool de conexiones
+        try {
+            pool = new PoolConexiones(DB_URL, USER, PASS, ConfiguracionPool.desdePropiedades());
+        } catch (SQLException ex) {
+            mostrarError("Error de Conexión", "No se pudo conectar a " + DB_URL + ": " + ex.getMessage());
+            throw new RuntimeException("No se pudo inicializar el pool de conexiones", ex);
+        }
+        // 3) Crear tablas necesarias dentro de la base de datos
         createTablesIfNotExists();
+        // 4) Pasar los vértices guardados con el formato antiguo a figuras.vertices_blob
+        migrarVerticesABlob();
     }
 
     public static synchronized ConexionBD getInstancia() {
@@ -39,10 +58,25 @@ public class ConexionBD {
     }
 
     /**
-     * Obtiene una conexión directa a la base de datos 'DB_NAME'.
+     * Presta una conexión del pool a la base de datos 'DB_NAME'.
+     * Al cerrarla (try-with-resources) vuelve al pool.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+        return pool.obtener();
+    }
+
+    /**
+     * Estado actual del pool (conexiones activas, inactivas, tiempos de espera).
+     */
+    public EstadisticasPool getEstadisticasPool() {
+        return pool.getEstadisticas();
+    }
+
+    /**
+     * Cierra todas las conexiones del pool.
+     */
+    public void cerrar() {
+        pool.close();
     }
 
     /**
@@ -57,12 +91,15 @@ public class ConexionBD {
         } catch (SQLException ex) {
             // 1049 = Unknown database
             if (ex.getErrorCode() == 1049) {
-                int resp = JOptionPane.showConfirmDialog(
-                    null,
-                    "La base de datos '" + DB_NAME + "' no existe. ¿Deseas crearla ahora?",
-                    "Base de datos no encontrada",
-                    JOptionPane.YES_NO_OPTION
-                );
+                // Sin pantalla (p. ej. RenderizadorLotes) no hay a quién preguntar: no se crea
+                int resp = GraphicsEnvironment.isHeadless()
+                    ? JOptionPane.NO_OPTION
+                    : JOptionPane.showConfirmDialog(
+                        null,
+                        "La base de datos '" + DB_NAME + "' no existe. ¿Deseas crearla ahora?",
+                        "Base de datos no encontrada",
+                        JOptionPane.YES_NO_OPTION
+                    );
                 if (resp == JOptionPane.YES_OPTION) {
                     try (Connection srvConn = DriverManager.getConnection(BASE_URL, USER, PASS);
                          Statement stmt = srvConn.createStatement()) {
@@ -71,12 +108,7 @@ public class ConexionBD {
                             " DEFAULT CHARACTER SET utf8mb4 DEFAULT COLLATE utf8mb4_unicode_ci"
                         );
                     } catch (SQLException e2) {
-                        JOptionPane.showMessageDialog(
-                            null,
-                            "Error al crear la base de datos: " + e2.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                        );
+                        mostrarError("Error", "Error al crear la base de datos: " + e2.getMessage());
                         throw new RuntimeException("No se pudo crear la base de datos", e2);
                     }
                 } else {
@@ -86,71 +118,45 @@ public class ConexionBD {
                 }
             } else {
                 // Otro error al conectar: permisos insuficientes u otros problemas
-                JOptionPane.showMessageDialog(
-                    null,
-                    "No se pudo conectar a MySQL: " + ex.getMessage(),
-                    "Error de Conexión",
-                    JOptionPane.ERROR_MESSAGE
-                );
+                mostrarError("Error de Conexión", "No se pudo conectar a MySQL: " + ex.getMessage());
                 throw new RuntimeException("Error al conectar a MySQL", ex);
             }
         }
     }
 
     /**
-     * Ejecuta los CREATE TABLE IF NOT EXISTS dentro de la base de datos 'DB_NAME'.
+     * Crea las tablas que falten (DDL según el motor, ver EsquemaBD).
      */
     private void createTablesIfNotExists() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            // 1) Tabla 'dibujos'
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS dibujos (" +
-                " id_dibujo INT AUTO_INCREMENT PRIMARY KEY," +
-                " nombre VARCHAR(255) NOT NULL UNIQUE," +
-                " fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP" +
-                ") ENGINE=InnoDB;"
-            );
-
-            // 2) Tabla 'figuras'
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS figuras (" +
-                " id_figura INT AUTO_INCREMENT PRIMARY KEY," +
-                " id_dibujo INT NOT NULL," +
-                " orden INT NOT NULL," +
-                " tipo VARCHAR(20) NOT NULL," +
-                " color_trazo INT NOT NULL," +
-                " color_relleno INT NOT NULL," +
-                " relleno TINYINT(1) NOT NULL," +
-                " x INT, y INT," +
-                " x1 INT, y1 INT," +
-                " x2 INT, y2 INT," +
-                " centroX INT, centroY INT," +
-                " radio INT," +
-                " n_lados INT," +
-                " angulo_inicio DOUBLE," +
-                " FOREIGN KEY (id_dibujo) REFERENCES dibujos(id_dibujo) ON DELETE CASCADE" +
-                ") ENGINE=InnoDB;"
-            );
-
-            // 3) Tabla 'vertices_poligonos_irregulares'
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS vertices_poligonos_irregulares (" +
-                " id_vertice INT AUTO_INCREMENT PRIMARY KEY," +
-                " id_figura INT NOT NULL," +
-                " x INT NOT NULL, y INT NOT NULL," +
-                " orden_vert INT NOT NULL," +
-                " FOREIGN KEY (id_figura) REFERENCES figuras(id_figura) ON DELETE CASCADE" +
-                ") ENGINE=InnoDB;"
-            );
+        try (Connection conn = getConnection()) {
+            EsquemaBD.crearTablas(conn);
         } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                null,
-                "Error al inicializar las tablas: " + ex.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE
-            );
+            mostrarError("Error", "Error al inicializar las tablas: " + ex.getMessage());
             throw new RuntimeException("Error al crear tablas", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Pasa los vértices guardados con el formato antiguo a figuras.vertices_blob.
+     */
+    private void migrarVerticesABlob() {
+        try (Connection conn = getConnection()) {
+            EsquemaBD.migrarVerticesABlob(conn);
+        } catch (SQLException ex) {
+            mostrarError("Error", "Error al migrar los vértices de polígonos: " + ex.getMessage());
+            throw new RuntimeException("Error al migrar vértices", ex);
+        }
+    }
+
+    /**
+     * Muestra un error al usuario; sin pantalla (java.awt.headless=true) lo
+     * escribe en la salida de error.
+     */
+    private static void mostrarError(String titulo, String mensaje) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println(titulo + ": " + mensaje);
+        } else {
+            JOptionPane.showMessageDialog(null, mensaje, titulo, JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dao;
+
+/**
+ * Parámetros del pool de conexiones JDBC.
+ * Los valores por defecto pueden sobrescribirse con propiedades del sistema
+ * (-DDB_POOL_MIN=..., etc.), igual que DB_USER/DB_PASS.
+ */
+public class ConfiguracionPool {
+    private final int minConexiones;
+    private final int maxConexiones;
+    private final long inactividadMaxMillis;
+    private final long esperaMaxMillis;
+    private final int validacionTimeoutSeg;
+
+    /**
+     * @param minConexiones conexiones que el pool mantiene abiertas aunque estén inactivas
+     * @param maxConexiones límite de conexiones abiertas a la vez (prestadas + inactivas)
+     * @param inactividadMaxMillis tiempo tras el cual se cierra una conexión inactiva sobrante
+     * @param esperaMaxMillis tiempo máximo que espera un hilo a que quede una conexión libre
+     * @param validacionTimeoutSeg timeout de Connection.isValid() al prestar una conexión
+     */
+    public ConfiguracionPool(int minConexiones, int maxConexiones,
+                             long inactividadMaxMillis, long esperaMaxMillis,
+                             int validacionTimeoutSeg) {
+        if (minConexiones < 0 || maxConexiones < 1 || minConexiones > maxConexiones) {
+            throw new IllegalArgumentException(
+                "Tamaño de pool inválido: min=" + minConexiones + ", max=" + maxConexiones
+            );
+        }
+        this.minConexiones = minConexiones;
+        this.maxConexiones = maxConexiones;
+        this.inactividadMaxMillis = inactividadMaxMillis;
+        this.esperaMaxMillis = esperaMaxMillis;
+        this.validacionTimeoutSeg = validacionTimeoutSeg;
+    }
+
+    /**
+     * Configuración leída de las propiedades del sistema, con valores por defecto
+     * razonables para una aplicación de escritorio.
+     */
+    public static ConfiguracionPool desdePropiedades() {
+        return new ConfiguracionPool(
+            Integer.getInteger("DB_POOL_MIN", 1),
+            Integer.getInteger("DB_POOL_MAX", 8),
+            Long.getLong("DB_POOL_INACTIVIDAD_MS", 60_000L),
+            Long.getLong("DB_POOL_ESPERA_MS", 10_000L),
+            Integer.getInteger("DB_POOL_VALIDACION_SEG", 2)
+        );
+    }
+
+    public int getMinConexiones() { return minConexiones; }
+    public int getMaxConexiones() { return maxConexiones; }
+    public long getInactividadMaxMillis() { return inactividadMaxMillis; }
+    public long getEsperaMaxMillis() { return esperaMaxMillis; }
+    public int getValidacionTimeoutSeg() { return validacionTimeoutSeg; }
+}
@@ -2,7 +2,9 @@ package dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para la tabla 'dibujos' en MySQL.
@@ -19,9 +21,18 @@ public class DibujoDAO {
      * Devuelve el id generado. Si el nombre ya existe, lanza SQLException.
      */
     public int crearDibujo(String nombre) throws SQLException {
+        try (Connection conn = conexionBD.getConnection()) {
+            return crearDibujo(conn, nombre);
+        }
+    }
+
+    /**
+     * Igual que crearDibujo(String) pero sobre la conexión dada, para poder
+     * hacerlo dentro de una transacción más amplia (ver FiguraDAO.guardarDibujoNuevo).
+     */
+    int crearDibujo(Connection conn, String nombre) throws SQLException {
         String sql = "INSERT INTO dibujos(nombre) VALUES (?)";
-        try (Connection conn = conexionBD.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, nombre);
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -50,6 +61,22 @@ public class DibujoDAO {
         return lista;
     }
 
+    /**
+     * Devuelve id y nombre de todos los dibujos, ordenados por id.
+     */
+    public Map<Integer, String> listarDibujos() throws SQLException {
+        Map<Integer, String> dibujos = new LinkedHashMap<>();
+        String sql = "SELECT id_dibujo, nombre FROM dibujos ORDER BY id_dibujo";
+        try (Connection conn = conexionBD.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                dibujos.put(rs.getInt("id_dibujo"), rs.getString("nombre"));
+            }
+        }
+        return dibujos;
+    }
+
     /**
      * Devuelve el id_dibujo correspondiente a un nombre. Si no existe, retorna -1.
      */
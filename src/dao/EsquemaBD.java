@@ -0,0 +1,194 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Crea las tablas de la aplicación y migra los datos antiguos, sobre una
+ * conexión cualquiera (independiente del pool).
+ *
+ * El DDL se adapta al motor: con MySQL/MariaDB se usan InnoDB, MEDIUMBLOB
+ * y AUTO_INCREMENT como siempre; con el resto (H2, Derby...) solo tipos y
+ * sintaxis del estándar SQL, para poder trabajar contra una BD embebida.
+ */
+public final class EsquemaBD {
+
+    private EsquemaBD() {
+    }
+
+    /**
+     * Crea las tablas que no existan y añade las columnas que falten a las
+     * creadas por versiones anteriores.
+     */
+    public static void crearTablas(Connection conn) throws SQLException {
+        boolean mysql = esMySQL(conn);
+        String clave = mysql
+            ? "INT AUTO_INCREMENT PRIMARY KEY"
+            : "INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+        String fecha = mysql ? "DATETIME" : "TIMESTAMP";
+        String booleano = mysql ? "TINYINT(1)" : "SMALLINT";
+        String blob = mysql ? "MEDIUMBLOB" : "BLOB";
+        String motor = mysql ? " ENGINE=InnoDB" : "";
+
+        try (Statement stmt = conn.createStatement()) {
+            // 1) Tabla 'dibujos'
+            if (!existeTabla(conn, "dibujos")) {
+                stmt.executeUpdate(
+                    "CREATE TABLE dibujos (" +
+                    " id_dibujo " + clave + "," +
+                    " nombre VARCHAR(255) NOT NULL UNIQUE," +
+                    " fecha_creacion " + fecha + " DEFAULT CURRENT_TIMESTAMP NOT NULL" +
+                    ")" + motor
+                );
+            }
+
+            // 2) Tabla 'figuras'
+            if (!existeTabla(conn, "figuras")) {
+                stmt.executeUpdate(
+                    "CREATE TABLE figuras (" +
+                    " id_figura " + clave + "," +
+                    " id_dibujo INT NOT NULL," +
+                    " orden INT NOT NULL," +
+                    " tipo VARCHAR(20) NOT NULL," +
+                    " color_trazo INT NOT NULL," +
+                    " color_relleno INT NOT NULL," +
+                    " relleno " + booleano + " NOT NULL," +
+                    " x INT, y INT," +
+                    " x1 INT, y1 INT," +
+                    " x2 INT, y2 INT," +
+                    " centroX INT, centroY INT," +
+                    " radio INT," +
+                    " n_lados INT," +
+                    " angulo_inicio DOUBLE," +
+                    " vertices_blob " + blob + "," +
+                    " FOREIGN KEY (id_dibujo) REFERENCES dibujos(id_dibujo) ON DELETE CASCADE" +
+                    ")" + motor
+                );
+            }
+            // Tablas creadas por versiones anteriores no tienen la columna de vértices compactos
+            else if (!existeColumna(conn, "figuras", "vertices_blob")) {
+                stmt.executeUpdate("ALTER TABLE figuras ADD COLUMN vertices_blob " + blob);
+            }
+
+            // 3) Tabla 'vertices_poligonos_irregulares' (formato antiguo, una fila por vértice)
+            if (!existeTabla(conn, "vertices_poligonos_irregulares")) {
+                stmt.executeUpdate(
+                    "CREATE TABLE vertices_poligonos_irregulares (" +
+                    " id_vertice " + clave + "," +
+                    " id_figura INT NOT NULL," +
+                    " x INT NOT NULL, y INT NOT NULL," +
+                    " orden_vert INT NOT NULL," +
+                    " FOREIGN KEY (id_figura) REFERENCES figuras(id_figura) ON DELETE CASCADE" +
+                    ")" + motor
+                );
+            }
+        }
+    }
+
+    /**
+     * Convierte los polígonos irregulares que aún tienen sus vértices en
+     * 'vertices_poligonos_irregulares' al formato compacto (figuras.vertices_blob)
+     * y borra esas filas. Se hace en una transacción; si no queda nada que
+     * migrar, solo cuesta una consulta vacía.
+     *
+     * @return número de polígonos migrados
+     */
+    public static int migrarVerticesABlob(Connection conn) throws SQLException {
+        String sqlSel = "SELECT v.id_figura, v.x, v.y "
+                      + "FROM vertices_poligonos_irregulares v "
+                      + "JOIN figuras f ON f.id_figura = v.id_figura "
+                      + "WHERE f.vertices_blob IS NULL "
+                      + "ORDER BY v.id_figura ASC, v.orden_vert ASC";
+        String sqlUpd = "UPDATE figuras SET vertices_blob = ? WHERE id_figura = ?";
+        String sqlDel = "DELETE FROM vertices_poligonos_irregulares WHERE id_figura IN "
+                      + "(SELECT id_figura FROM figuras WHERE vertices_blob IS NOT NULL)";
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement psSel = conn.prepareStatement(sqlSel);
+             PreparedStatement psUpd = conn.prepareStatement(sqlUpd);
+             ResultSet rs = psSel.executeQuery()) {
+            int migradas = 0;
+            int idActual = -1;
+            int n = 0;
+            int[] xs = new int[64];
+            int[] ys = new int[64];
+            boolean hayFila = rs.next();
+            while (hayFila) {
+                int idFig = rs.getInt(1);
+                if (idFig != idActual) {
+                    idActual = idFig;
+                    n = 0;
+                }
+                if (n == xs.length) {
+                    xs = Arrays.copyOf(xs, n * 2);
+                    ys = Arrays.copyOf(ys, n * 2);
+                }
+                xs[n] = rs.getInt(2);
+                ys[n] = rs.getInt(3);
+                n++;
+                hayFila = rs.next();
+                // Fin de la figura actual: guardar su BLOB
+                if (!hayFila || rs.getInt(1) != idActual) {
+                    psUpd.setBytes(1, CodificadorVertices.codificar(xs, ys, n));
+                    psUpd.setInt(2, idActual);
+                    psUpd.addBatch();
+                    if (++migradas % 1000 == 0) {
+                        psUpd.executeBatch();
+                    }
+                }
+            }
+            if (migradas > 0) {
+                psUpd.executeBatch();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(sqlDel);
+                }
+            }
+            conn.commit();
+            return migradas;
+        } catch (SQLException ex) {
+            conn.rollback();
+            throw ex;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    static boolean esMySQL(Connection conn) throws SQLException {
+        String producto = conn.getMetaData().getDatabaseProductName();
+        return producto != null
+            && (producto.contains("MySQL") || producto.contains("MariaDB"));
+    }
+
+    static boolean existeTabla(Connection conn, String tabla) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // Según el motor los identificadores se guardan en minúsculas o mayúsculas
+        for (String t : new String[] { tabla, tabla.toUpperCase() }) {
+            try (ResultSet rs = meta.getTables(conn.getCatalog(), null, t, new String[] { "TABLE" })) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean existeColumna(Connection conn, String tabla, String columna)
+            throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String t : new String[] { tabla, tabla.toUpperCase() }) {
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, t, null)) {
+                while (rs.next()) {
+                    if (columna.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
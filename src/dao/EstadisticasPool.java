@@ -0,0 +1,54 @@
+package dao;
+
+/**
+ * Instantánea del estado del pool de conexiones, útil para ver si se satura.
+ */
+public class EstadisticasPool {
+    private final int activas;
+    private final int inactivas;
+    private final int hilosEsperando;
+    private final long prestamos;
+    private final long timeouts;
+    private final long esperaTotalNanos;
+    private final long esperaMaxNanos;
+
+    public EstadisticasPool(int activas, int inactivas, int hilosEsperando,
+                            long prestamos, long timeouts,
+                            long esperaTotalNanos, long esperaMaxNanos) {
+        this.activas = activas;
+        this.inactivas = inactivas;
+        this.hilosEsperando = hilosEsperando;
+        this.prestamos = prestamos;
+        this.timeouts = timeouts;
+        this.esperaTotalNanos = esperaTotalNanos;
+        this.esperaMaxNanos = esperaMaxNanos;
+    }
+
+    /** Conexiones prestadas en este momento. */
+    public int getActivas() { return activas; }
+    /** Conexiones abiertas disponibles en el pool. */
+    public int getInactivas() { return inactivas; }
+    /** Hilos bloqueados esperando una conexión libre. */
+    public int getHilosEsperando() { return hilosEsperando; }
+    /** Número total de préstamos servidos. */
+    public long getPrestamos() { return prestamos; }
+    /** Préstamos que agotaron el tiempo de espera. */
+    public long getTimeouts() { return timeouts; }
+    /** Tiempo medio de espera por petición (incluidas las que agotaron el timeout), en ms. */
+    public double getEsperaMediaMillis() {
+        long peticiones = prestamos + timeouts;
+        return peticiones == 0 ? 0.0 : esperaTotalNanos / 1_000_000.0 / peticiones;
+    }
+    /** Mayor espera observada por un préstamo, en milisegundos. */
+    public double getEsperaMaxMillis() { return esperaMaxNanos / 1_000_000.0; }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "activas=%d, inactivas=%d, esperando=%d, prestamos=%d, timeouts=%d, "
+            + "espera media=%.3f ms, espera max=%.3f ms",
+            activas, inactivas, hilosEsperando, prestamos, timeouts,
+            getEsperaMediaMillis(), getEsperaMaxMillis()
+        );
+    }
+}
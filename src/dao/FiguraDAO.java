@@ -4,10 +4,16 @@ import model.*;
 import java.awt.Point;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * DAO para las tablas 'figuras' y 'vertices_poligonos_irregulares' en MySQL.
+ * Los vértices de los polígonos irregulares se guardan codificados en
+ * figuras.vertices_blob (ver CodificadorVertices); la tabla de vértices
+ * solo se lee para dibujos aún no migrados.
  */
 public class FiguraDAO {
     private final ConexionBD conexionBD;
@@ -16,167 +22,200 @@ public class FiguraDAO {
         this.conexionBD = ConexionBD.getInstancia();
     }
 
+    // Sentencia común a todos los tipos: las columnas que no aplican van a NULL
+    private static final String SQL_INSERT_FIGURA =
+        "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno, "
+      + "x, y, x1, y1, x2, y2, centroX, centroY, radio, n_lados, angulo_inicio, vertices_blob) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Filas acumuladas antes de cada executeBatch
+    private static final int TAMANO_LOTE = 1000;
+
     /**
      * Guarda una figura en la BD, vinculada a idDibujo, con el orden indicado.
-     * - Para tipo POLIG_IRREG, también inserta sus vértices.
+     * - Para tipo POLIG_IRREG, sus vértices van codificados en la columna vertices_blob.
      */
     public void guardarFigura(int idDibujo, Figura f, int orden) throws SQLException {
-        String tipo;
-        int colorTrazoInt, colorRellenoInt, rellInt;
+        try (Connection conn = conexionBD.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_INSERT_FIGURA)) {
+            asignarParametrosFigura(ps, idDibujo, f, orden);
+            ps.executeUpdate();
+        }
+    }
 
-        if (f instanceof PuntoFigura) {
-            tipo = "PUNTO";
-            PuntoFigura pf = (PuntoFigura) f;
-            colorTrazoInt = pf.getColorTrazo().getRGB() & 0xFFFFFF;
-            colorRellenoInt = 0;
-            rellInt = 0;
+    /**
+     * Guarda todas las figuras de un dibujo en una única transacción:
+     * primero borra las que tuviera (sobrescritura), luego inserta las filas
+     * de 'figuras' por lotes (addBatch/executeBatch).
+     * Si algo falla se hace rollback y el dibujo queda como estaba.
+     */
+    public void guardarDibujoCompleto(int idDibujo, List<Figura> figuras) throws SQLException {
+        guardarDibujoCompleto(idDibujo, figuras, ProgresoListener.NINGUNO);
+    }
+
+    /**
+     * Igual que guardarDibujoCompleto(int, List), notificando el avance tras cada lote.
+     * Si el listener pide cancelar, se hace rollback y se lanza CancellationException.
+     */
+    public void guardarDibujoCompleto(int idDibujo, List<Figura> figuras, ProgresoListener progreso)
+            throws SQLException {
+        guardarEnTransaccion(figuras, progreso, conn -> {
+            // Sobrescritura: ON DELETE CASCADE elimina también los vértices antiguos
+            try (PreparedStatement psDel = conn.prepareStatement(
+                    "DELETE FROM figuras WHERE id_dibujo = ?")) {
+                psDel.setInt(1, idDibujo);
+                psDel.executeUpdate();
+            }
+            return idDibujo;
+        });
+    }
+
+    /**
+     * Crea el dibujo 'nombre' y guarda sus figuras en una única transacción:
+     * la fila de 'dibujos' y las de 'figuras' se confirman juntas, así que si
+     * algo falla o se cancela no queda un dibujo vacío o a medias.
+     * Si el nombre ya existe, lanza la SQLException de clave duplicada.
+     *
+     * @return id del dibujo creado
+     */
+    public int guardarDibujoNuevo(String nombre, List<Figura> figuras, ProgresoListener progreso)
+            throws SQLException {
+        return guardarEnTransaccion(figuras, progreso,
+            conn -> new DibujoDAO().crearDibujo(conn, nombre));
+    }
+
+    /**
+     * Abre una transacción, ejecuta 'preparar' (que devuelve el id del dibujo)
+     * e inserta las filas de 'figuras' por lotes (addBatch/executeBatch).
+     * Si algo falla se hace rollback y la BD queda como estaba.
+     */
+    private int guardarEnTransaccion(List<Figura> figuras, ProgresoListener progreso,
+                                     PreparacionDibujo preparar) throws SQLException {
+        int total = figuras.size();
+        comprobarProgreso(progreso, 0, total);
+        try (Connection conn = conexionBD.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int idDibujo = preparar.ejecutar(conn);
+
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_FIGURA)) {
+                    int enLote = 0;
+                    for (int i = 0; i < figuras.size(); i++) {
+                        asignarParametrosFigura(ps, idDibujo, figuras.get(i), i);
+                        ps.addBatch();
+                        if (++enLote == TAMANO_LOTE) {
+                            ps.executeBatch();
+                            enLote = 0;
+                            comprobarProgreso(progreso, i + 1, total);
+                        }
+                    }
+                    if (enLote > 0) {
+                        ps.executeBatch();
+                    }
+                }
 
-            String sql = "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno, x, y) "
-                       + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, idDibujo);
-                ps.setInt(2, orden);
-                ps.setString(3, tipo);
-                ps.setInt(4, colorTrazoInt);
-                ps.setInt(5, colorRellenoInt);
-                ps.setInt(6, rellInt);
-                ps.setInt(7, pf.getX());
-                ps.setInt(8, pf.getY());
-                ps.executeUpdate();
+                conn.commit();
+                // Ya está confirmado: a partir de aquí no se puede cancelar
+                progreso.avanzar(total, total);
+                return idDibujo;
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
+    }
+
+    @FunctionalInterface
+    private interface PreparacionDibujo {
+        int ejecutar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Rellena los parámetros de SQL_INSERT_FIGURA para la figura dada.
+     */
+    private void asignarParametrosFigura(PreparedStatement ps, int idDibujo, Figura f, int orden)
+            throws SQLException {
+        // Por defecto todas las columnas de geometría a NULL (índices 7..18)
+        for (int i = 7; i <= 16; i++) {
+            ps.setNull(i, Types.INTEGER);
+        }
+        ps.setNull(17, Types.DOUBLE);
+        ps.setNull(18, Types.BLOB);
+        ps.setInt(1, idDibujo);
+        ps.setInt(2, orden);
+
+        if (f instanceof PuntoFigura) {
+            PuntoFigura pf = (PuntoFigura) f;
+            asignarTipoYColores(ps, "PUNTO", pf.getColorTrazo(), null, false);
+            ps.setInt(7, pf.getX());
+            ps.setInt(8, pf.getY());
+        }
         else if (f instanceof LineaFigura) {
-            tipo = "LINEA";
             LineaFigura lf = (LineaFigura) f;
-            colorTrazoInt = lf.getColorTrazo().getRGB() & 0xFFFFFF;
-            colorRellenoInt = 0;
-            rellInt = 0;
-
-            String sql = "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno, x1, y1, x2, y2) "
-                       + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, idDibujo);
-                ps.setInt(2, orden);
-                ps.setString(3, tipo);
-                ps.setInt(4, colorTrazoInt);
-                ps.setInt(5, colorRellenoInt);
-                ps.setInt(6, rellInt);
-                ps.setInt(7, lf.getX1());
-                ps.setInt(8, lf.getY1());
-                ps.setInt(9, lf.getX2());
-                ps.setInt(10, lf.getY2());
-                ps.executeUpdate();
-            }
+            asignarTipoYColores(ps, "LINEA", lf.getColorTrazo(), null, false);
+            ps.setInt(9, lf.getX1());
+            ps.setInt(10, lf.getY1());
+            ps.setInt(11, lf.getX2());
+            ps.setInt(12, lf.getY2());
         }
         else if (f instanceof CirculoFigura) {
-            tipo = "CIRCULO";
             CirculoFigura cf = (CirculoFigura) f;
-            colorTrazoInt = cf.getColorTrazo().getRGB() & 0xFFFFFF;
-            colorRellenoInt = cf.getColorRelleno().getRGB() & 0xFFFFFF;
-            rellInt = cf.isRelleno() ? 1 : 0;
-
-            String sql = "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno, centroX, centroY, radio) "
-                       + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, idDibujo);
-                ps.setInt(2, orden);
-                ps.setString(3, tipo);
-                ps.setInt(4, colorTrazoInt);
-                ps.setInt(5, colorRellenoInt);
-                ps.setInt(6, rellInt);
-                ps.setInt(7, cf.getCentroX());
-                ps.setInt(8, cf.getCentroY());
-                ps.setInt(9, cf.getRadio());
-                ps.executeUpdate();
-            }
+            asignarTipoYColores(ps, "CIRCULO", cf.getColorTrazo(), cf.getColorRelleno(), cf.isRelleno());
+            ps.setInt(13, cf.getCentroX());
+            ps.setInt(14, cf.getCentroY());
+            ps.setInt(15, cf.getRadio());
         }
         else if (f instanceof PoligonoRegularFigura) {
-            tipo = "POLIG_REG";
             PoligonoRegularFigura prf = (PoligonoRegularFigura) f;
-            colorTrazoInt = prf.getColorTrazo().getRGB() & 0xFFFFFF;
-            colorRellenoInt = prf.getColorRelleno().getRGB() & 0xFFFFFF;
-            rellInt = prf.isRelleno() ? 1 : 0;
-
-            String sql = "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno, "
-                       + "centroX, centroY, radio, n_lados, angulo_inicio) "
-                       + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, idDibujo);
-                ps.setInt(2, orden);
-                ps.setString(3, tipo);
-                ps.setInt(4, colorTrazoInt);
-                ps.setInt(5, colorRellenoInt);
-                ps.setInt(6, rellInt);
-                ps.setInt(7, prf.getCentroX());
-                ps.setInt(8, prf.getCentroY());
-                ps.setInt(9, prf.getRadio());
-                ps.setInt(10, prf.getnLados());
-                ps.setDouble(11, prf.getAnguloInicio());
-                ps.executeUpdate();
-            }
+            asignarTipoYColores(ps, "POLIG_REG", prf.getColorTrazo(), prf.getColorRelleno(), prf.isRelleno());
+            ps.setInt(13, prf.getCentroX());
+            ps.setInt(14, prf.getCentroY());
+            ps.setInt(15, prf.getRadio());
+            ps.setInt(16, prf.getnLados());
+            ps.setDouble(17, prf.getAnguloInicio());
         }
         else if (f instanceof PoligonoIrregularFigura) {
-            tipo = "POLIG_IRREG";
             PoligonoIrregularFigura pirf = (PoligonoIrregularFigura) f;
-            colorTrazoInt = pirf.getColorTrazo().getRGB() & 0xFFFFFF;
-            colorRellenoInt = pirf.getColorRelleno().getRGB() & 0xFFFFFF;
-            rellInt = pirf.isRelleno() ? 1 : 0;
-
-            // 1) Insertar fila en 'figuras' sin datos de vértices
-            String sqlFig = "INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, color_relleno, relleno) "
-                          + "VALUES (?, ?, ?, ?, ?, ?)";
-            int idFiguraGenerado;
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sqlFig, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, idDibujo);
-                ps.setInt(2, orden);
-                ps.setString(3, tipo);
-                ps.setInt(4, colorTrazoInt);
-                ps.setInt(5, colorRellenoInt);
-                ps.setInt(6, rellInt);
-                ps.executeUpdate();
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        idFiguraGenerado = rs.getInt(1);
-                    } else {
-                        throw new SQLException("No se obtuvo id para polígono irregular.");
-                    }
-                }
-            }
-
-            // 2) Insertar cada vértice en 'vertices_poligonos_irregulares'
-            String sqlVert = "INSERT INTO vertices_poligonos_irregulares(id_figura, x, y, orden_vert) "
-                           + "VALUES (?, ?, ?, ?)";
-            List<Point> verts = pirf.getVertices();
-            try (Connection conn = conexionBD.getConnection();
-                 PreparedStatement ps2 = conn.prepareStatement(sqlVert)) {
-                int idx = 0;
-                for (Point p : verts) {
-                    ps2.setInt(1, idFiguraGenerado);
-                    ps2.setInt(2, p.x);
-                    ps2.setInt(3, p.y);
-                    ps2.setInt(4, idx++);
-                    ps2.executeUpdate();
-                }
-            }
+            asignarTipoYColores(ps, "POLIG_IRREG", pirf.getColorTrazo(), pirf.getColorRelleno(), pirf.isRelleno());
+            ps.setBytes(18, CodificadorVertices.codificar(pirf));
         }
         else {
             throw new IllegalArgumentException("Tipo de figura no soportado en DAO: " + f.getClass());
         }
     }
 
+    private void asignarTipoYColores(PreparedStatement ps, String tipo,
+                                     java.awt.Color trazo, java.awt.Color relleno, boolean rell)
+            throws SQLException {
+        ps.setString(3, tipo);
+        ps.setInt(4, trazo.getRGB() & 0xFFFFFF);
+        ps.setInt(5, relleno != null ? relleno.getRGB() & 0xFFFFFF : 0);
+        ps.setInt(6, rell ? 1 : 0);
+    }
+
     /**
      * Carga todas las figuras asociadas a idDibujo, en orden, y devuelve la lista de objetos Figura.
      */
     public List<Figura> cargarFigurasPorDibujo(int idDibujo) throws SQLException {
+        return cargarFigurasPorDibujo(idDibujo, ProgresoListener.NINGUNO);
+    }
+
+    /**
+     * Igual que cargarFigurasPorDibujo(int), notificando el avance cada TAMANO_LOTE figuras.
+     * Si el listener pide cancelar, se lanza CancellationException.
+     */
+    public List<Figura> cargarFigurasPorDibujo(int idDibujo, ProgresoListener progreso)
+            throws SQLException {
         List<Figura> lista = new ArrayList<>();
         String sql = "SELECT * FROM figuras WHERE id_dibujo = ? ORDER BY orden ASC";
         try (Connection conn = conexionBD.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            int total = progreso == ProgresoListener.NINGUNO ? 0 : contarFiguras(conn, idDibujo);
+            comprobarProgreso(progreso, 0, total);
+            // Polígonos sin vertices_blob (formato antiguo, una fila por vértice): se dejan
+            // huecos en la lista y sus vértices se leen, todos de una vez, al cerrar el ResultSet
+            List<PoligonoPendiente> pendientes = new ArrayList<>();
             ps.setInt(1, idDibujo);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -235,39 +274,122 @@ public class FiguraDAO {
                             break;
 
                         case "POLIG_IRREG":
-                            int idFig = rs.getInt("id_figura");
-                            List<Point> verts = new ArrayList<>();
-                            String sqlv = "SELECT x, y FROM vertices_poligonos_irregulares "
-                                        + "WHERE id_figura = ? ORDER BY orden_vert ASC";
-                            try (PreparedStatement ps2 = conn.prepareStatement(sqlv)) {
-                                ps2.setInt(1, idFig);
-                                try (ResultSet rs2 = ps2.executeQuery()) {
-                                    while (rs2.next()) {
-                                        verts.add(new Point(
-                                            rs2.getInt("x"),
-                                            rs2.getInt("y")
-                                        ));
-                                    }
-                                }
+                            byte[] blob = rs.getBytes("vertices_blob");
+                            PoligonoIrregularFigura pirf;
+                            if (blob != null) {
+                                int[][] xy = CodificadorVertices.decodificar(blob);
+                                pirf = PoligonoIrregularFigura.sinCopiar(
+                                    xy[0], xy[1],
+                                    new java.awt.Color(colorTrazoInt),
+                                    new java.awt.Color(colorRellenoInt),
+                                    rell
+                                );
+                            } else {
+                                pendientes.add(new PoligonoPendiente(
+                                    lista.size(), rs.getInt("id_figura"),
+                                    colorTrazoInt, colorRellenoInt, rell
+                                ));
+                                pirf = null;
                             }
-                            PoligonoIrregularFigura pirf = new PoligonoIrregularFigura(
-                                verts,
-                                new java.awt.Color(colorTrazoInt),
-                                new java.awt.Color(colorRellenoInt),
-                                rell
-                            );
                             lista.add(pirf);
                             break;
 
                         default:
                             throw new SQLException("Tipo de figura desconocido al cargar: " + tipo);
                     }
+                    if (lista.size() % TAMANO_LOTE == 0) {
+                        comprobarProgreso(progreso, lista.size(), total);
+                    }
                 }
             }
+            if (!pendientes.isEmpty()) {
+                Map<Integer, List<Point>> verticesAntiguos = cargarVerticesDeDibujo(conn, idDibujo);
+                for (PoligonoPendiente p : pendientes) {
+                    lista.set(p.posicion, new PoligonoIrregularFigura(
+                        verticesAntiguos.getOrDefault(p.idFigura, new ArrayList<>()),
+                        new java.awt.Color(p.colorTrazo),
+                        new java.awt.Color(p.colorRelleno),
+                        p.relleno
+                    ));
+                }
+            }
+            comprobarProgreso(progreso, lista.size(), total);
         }
         return lista;
     }
 
+    private int contarFiguras(Connection conn, int idDibujo) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM figuras WHERE id_dibujo = ?")) {
+            ps.setInt(1, idDibujo);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Notifica el avance y aborta la operación si el listener pide cancelarla.
+     */
+    private static void comprobarProgreso(ProgresoListener progreso, int procesadas, int total) {
+        if (!progreso.avanzar(procesadas, total)) {
+            throw new CancellationException("Operación cancelada por el usuario.");
+        }
+    }
+
+    /**
+     * Polígono irregular leído sin vertices_blob, a completar con sus vértices
+     * del formato antiguo una vez recorridas todas las figuras.
+     */
+    private static final class PoligonoPendiente {
+        final int posicion;
+        final int idFigura;
+        final int colorTrazo;
+        final int colorRelleno;
+        final boolean relleno;
+
+        PoligonoPendiente(int posicion, int idFigura, int colorTrazo, int colorRelleno,
+                          boolean relleno) {
+            this.posicion = posicion;
+            this.idFigura = idFigura;
+            this.colorTrazo = colorTrazo;
+            this.colorRelleno = colorRelleno;
+            this.relleno = relleno;
+        }
+    }
+
+    /**
+     * Lee con una sola consulta los vértices (formato antiguo) de todos los polígonos
+     * irregulares del dibujo y los agrupa por id_figura en una única pasada
+     * (las filas llegan ordenadas por figura y orden de vértice).
+     */
+    private Map<Integer, List<Point>> cargarVerticesDeDibujo(Connection conn, int idDibujo)
+            throws SQLException {
+        Map<Integer, List<Point>> verticesPorFigura = new HashMap<>();
+        String sql = "SELECT v.id_figura, v.x, v.y "
+                   + "FROM vertices_poligonos_irregulares v "
+                   + "JOIN figuras f ON f.id_figura = v.id_figura "
+                   + "WHERE f.id_dibujo = ? "
+                   + "ORDER BY v.id_figura ASC, v.orden_vert ASC";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, idDibujo);
+            try (ResultSet rs = ps.executeQuery()) {
+                int idActual = 0;
+                List<Point> actual = null;
+                while (rs.next()) {
+                    int idFig = rs.getInt(1);
+                    if (actual == null || idFig != idActual) {
+                        idActual = idFig;
+                        actual = new ArrayList<>();
+                        verticesPorFigura.put(idFig, actual);
+                    }
+                    actual.add(new Point(rs.getInt(2), rs.getInt(3)));
+                }
+            }
+        }
+        return verticesPorFigura;
+    }
+
     /**
      * Elimina todas las figuras asociadas a un dibujo específico.
      * Útil si queremos sobrescribir un dibujo existente.
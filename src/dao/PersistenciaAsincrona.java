@@ -0,0 +1,113 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Figura;
+import model.ProgresoListener;
+
+/**
+ * Ejecuta las operaciones de DibujoDAO y FiguraDAO en un hilo dedicado
+ * para no bloquear el EDT de Swing. Cada método devuelve un CompletableFuture;
+ * quien lo use debe volver al EDT (SwingUtilities.invokeLater) para tocar
+ * el modelo o la vista.
+ *
+ * Las operaciones se ejecutan de una en una y en el orden en que se piden,
+ * así un guardado y una carga nunca se pisan.
+ */
+public class PersistenciaAsincrona {
+    private static final AtomicInteger contadorHilos = new AtomicInteger();
+
+    private final ExecutorService ejecutor;
+
+    public PersistenciaAsincrona() {
+        this.ejecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "persistencia-" + contadorHilos.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Nombres de los dibujos guardados, del más reciente al más antiguo.
+     */
+    public CompletableFuture<List<String>> listarNombresDibujos() {
+        return ejecutar(() -> new DibujoDAO().listarNombresDibujos());
+    }
+
+    /**
+     * Guarda las figuras con el nombre dado y devuelve el id del dibujo.
+     * Si sobrescribir es false y el nombre ya existe, falla con la SQLException
+     * de clave duplicada (ver esNombreDuplicado). Un dibujo nuevo se crea en
+     * la misma transacción que sus figuras: si el guardado falla o se cancela
+     * no queda en la BD.
+     *
+     * @param figuras copia de las figuras a guardar (no debe cambiar mientras se guarda)
+     */
+    public CompletableFuture<Integer> guardarDibujo(String nombre, List<Figura> figuras,
+                                                    boolean sobrescribir, ProgresoListener progreso) {
+        return ejecutar(() -> {
+            FiguraDAO figuraDAO = new FiguraDAO();
+            int idDibujo = sobrescribir ? new DibujoDAO().obtenerIdPorNombre(nombre) : -1;
+            if (idDibujo < 0) {
+                return figuraDAO.guardarDibujoNuevo(nombre, figuras, progreso);
+            }
+            figuraDAO.guardarDibujoCompleto(idDibujo, figuras, progreso);
+            return idDibujo;
+        });
+    }
+
+    /**
+     * Carga las figuras del dibujo con ese nombre.
+     */
+    public CompletableFuture<List<Figura>> cargarDibujo(String nombre, ProgresoListener progreso) {
+        return ejecutar(() -> {
+            int idDibujo = new DibujoDAO().obtenerIdPorNombre(nombre);
+            if (idDibujo < 0) {
+                throw new SQLException("No se encontró el dibujo '" + nombre + "' en la base de datos.");
+            }
+            return new FiguraDAO().cargarFigurasPorDibujo(idDibujo, progreso);
+        });
+    }
+
+    /**
+     * Indica si la excepción corresponde a un nombre de dibujo repetido.
+     */
+    public static boolean esNombreDuplicado(Throwable ex) {
+        if (!(ex instanceof SQLException)) {
+            return false;
+        }
+        SQLException sqlEx = (SQLException) ex;
+        String msg = sqlEx.getMessage();
+        // 1062 = clave duplicada en MySQL; 23505 = violación de unicidad (SQL estándar, H2...)
+        return sqlEx.getErrorCode() == 1062 || "23505".equals(sqlEx.getSQLState())
+            || (msg != null && msg.contains("Duplicate"));
+    }
+
+    /**
+     * Detiene el hilo de persistencia (las tareas ya encoladas terminan).
+     */
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> ejecutar(OperacionBD<T> operacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return operacion.ejecutar();
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, ejecutor);
+    }
+
+    @FunctionalInterface
+    private interface OperacionBD<T> {
+        T ejecutar() throws SQLException;
+    }
+}
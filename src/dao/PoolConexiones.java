@@ -0,0 +1,444 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * - Nunca hay más de maxConexiones abiertas; si todas están prestadas,
+ *   el hilo espera como mucho esperaMaxMillis y luego lanza SQLTimeoutException.
+ * - Al prestar una conexión inactiva se valida con isValid() (salvo que se
+ *   haya usado hace muy poco); las inválidas se descartan.
+ * - Un hilo en segundo plano cierra las conexiones inactivas sobrantes,
+ *   manteniendo al menos minConexiones.
+ *
+ * Las conexiones devueltas son proxies: close() las devuelve al pool
+ * en lugar de cerrarlas, así que los DAOs siguen usando try-with-resources.
+ * Las sentencias, metadatos y ResultSet obtenidos de ellas también van
+ * envueltos, para que getConnection() devuelva el proxy y nunca la física.
+ * Funciona con cualquier URL JDBC (MySQL, H2 embebido, etc.).
+ */
+public class PoolConexiones implements AutoCloseable {
+    // Una conexión devuelta hace menos de esto no se vuelve a validar
+    private static final long VALIDACION_OMITIDA_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String url;
+    private final String usuario;
+    private final String password;
+    private final ConfiguracionPool config;
+
+    // Un permiso por conexión que puede estar prestada a la vez
+    private final Semaphore permisos;
+    // Conexiones libres; la primera es la usada más recientemente (LIFO). Protegido por 'this'.
+    private final Deque<ConexionInactiva> inactivas = new ArrayDeque<>();
+    private final ScheduledExecutorService desalojador;
+    private volatile boolean cerrado = false;
+
+    // Estadísticas
+    private final AtomicInteger activas = new AtomicInteger();
+    private final LongAdder prestamos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaxNanos = new AtomicLong();
+
+    public PoolConexiones(String url, String usuario, String password, ConfiguracionPool config)
+            throws SQLException {
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.config = config;
+        this.permisos = new Semaphore(config.getMaxConexiones(), true);
+
+        // Abrimos el mínimo de conexiones por adelantado
+        for (int i = 0; i < config.getMinConexiones(); i++) {
+            inactivas.addFirst(new ConexionInactiva(abrirFisica(), System.nanoTime()));
+        }
+
+        this.desalojador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-desalojo");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000L, config.getInactividadMaxMillis() / 2);
+        desalojador.scheduleWithFixedDelay(
+            this::desalojarInactivas, periodo, periodo, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Presta una conexión. Debe cerrarse (close()) para devolverla al pool.
+     */
+    public Connection obtener() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+        long inicio = System.nanoTime();
+        boolean concedido;
+        try {
+            concedido = permisos.tryAcquire(config.getEsperaMaxMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool.", ex);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+        if (!concedido) {
+            timeouts.increment();
+            throw new SQLTimeoutException(
+                "No hay conexiones libres tras " + config.getEsperaMaxMillis()
+                + " ms (" + getEstadisticas() + ")"
+            );
+        }
+
+        try {
+            Connection fisica = tomarConexionValida();
+            activas.incrementAndGet();
+            prestamos.increment();
+            return new ConexionPrestada(fisica).proxy;
+        } catch (SQLException | RuntimeException ex) {
+            permisos.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Devuelve una instantánea de las estadísticas del pool.
+     */
+    public EstadisticasPool getEstadisticas() {
+        int libres;
+        synchronized (this) {
+            libres = inactivas.size();
+        }
+        return new EstadisticasPool(
+            activas.get(), libres, permisos.getQueueLength(),
+            prestamos.sum(), timeouts.sum(),
+            esperaTotalNanos.sum(), esperaMaxNanos.get()
+        );
+    }
+
+    /**
+     * Cierra las conexiones inactivas y detiene el desalojo. Las conexiones
+     * prestadas se cierran físicamente cuando se devuelvan.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        desalojador.shutdownNow();
+        List<ConexionInactiva> aCerrar;
+        synchronized (this) {
+            aCerrar = new ArrayList<>(inactivas);
+            inactivas.clear();
+        }
+        for (ConexionInactiva ci : aCerrar) {
+            cerrarSilenciosamente(ci.conexion);
+        }
+    }
+
+    private Connection abrirFisica() throws SQLException {
+        return DriverManager.getConnection(url, usuario, password);
+    }
+
+    /**
+     * Toma la conexión inactiva más reciente que siga siendo válida,
+     * o abre una nueva si no queda ninguna.
+     */
+    private Connection tomarConexionValida() throws SQLException {
+        while (true) {
+            ConexionInactiva ci;
+            synchronized (this) {
+                ci = inactivas.pollFirst();
+            }
+            if (ci == null) {
+                return abrirFisica();
+            }
+            boolean reciente = System.nanoTime() - ci.desde < VALIDACION_OMITIDA_NANOS;
+            if (reciente || esValida(ci.conexion)) {
+                return ci.conexion;
+            }
+            cerrarSilenciosamente(ci.conexion);
+        }
+    }
+
+    private boolean esValida(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(config.getValidacionTimeoutSeg());
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Recibe una conexión física de vuelta: si está sana se deja inactiva,
+     * si no (o si el pool está cerrado) se cierra.
+     */
+    private void devolver(Connection fisica, boolean danada) {
+        activas.decrementAndGet();
+        boolean reutilizable = !cerrado && !danada;
+        if (reutilizable) {
+            try {
+                // Una transacción a medias no debe pasar al siguiente usuario
+                if (!fisica.getAutoCommit()) {
+                    fisica.rollback();
+                    fisica.setAutoCommit(true);
+                }
+            } catch (SQLException ex) {
+                reutilizable = false;
+            }
+        }
+        if (reutilizable) {
+            synchronized (this) {
+                inactivas.addFirst(new ConexionInactiva(fisica, System.nanoTime()));
+            }
+        } else {
+            cerrarSilenciosamente(fisica);
+        }
+        permisos.release();
+    }
+
+    /**
+     * Cierra las conexiones que llevan más de inactividadMaxMillis sin usarse,
+     * sin bajar de minConexiones inactivas.
+     */
+    private void desalojarInactivas() {
+        long limite = System.nanoTime()
+                    - TimeUnit.MILLISECONDS.toNanos(config.getInactividadMaxMillis());
+        List<Connection> aCerrar = new ArrayList<>();
+        synchronized (this) {
+            // Las más antiguas están al final de la cola
+            Iterator<ConexionInactiva> it = inactivas.descendingIterator();
+            while (it.hasNext() && inactivas.size() > config.getMinConexiones()) {
+                ConexionInactiva ci = it.next();
+                if (ci.desde - limite >= 0) break;
+                it.remove();
+                aCerrar.add(ci.conexion);
+            }
+        }
+        for (Connection c : aCerrar) {
+            cerrarSilenciosamente(c);
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        esperaTotalNanos.add(nanos);
+        esperaMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void cerrarSilenciosamente(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ex) {
+            // La conexión se descarta de todas formas
+        }
+    }
+
+    /**
+     * Conexión física libre junto al instante (System.nanoTime) en que se devolvió.
+     */
+    private static final class ConexionInactiva {
+        final Connection conexion;
+        final long desde;
+
+        ConexionInactiva(Connection conexion, long desde) {
+            this.conexion = conexion;
+            this.desde = desde;
+        }
+    }
+
+    // Objetos JDBC que dan acceso a su conexión y por eso se devuelven envueltos
+    private static final List<Class<?>> TIPOS_ENVUELTOS = List.of(
+        Statement.class, PreparedStatement.class, CallableStatement.class,
+        DatabaseMetaData.class, ResultSet.class
+    );
+
+    /**
+     * Manejador del proxy que ve el DAO: delega en la conexión física
+     * salvo close(), que la devuelve al pool.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        private final Connection fisica;
+        // Lo que recibe el DAO
+        final Connection proxy;
+        private boolean devuelta = false;
+        private boolean danada = false;
+
+        ConexionPrestada(Connection fisica) {
+            this.fisica = fisica;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                this
+            );
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica, danada);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica + "]";
+                default:
+                    break;
+            }
+            comprobarPrestada();
+            Object propio = unwrapAlProxy(proxy, method, args);
+            if (propio != null) {
+                return propio;
+            }
+            return envolver(delegar(fisica, method, args), method.getReturnType(), proxy);
+        }
+
+        private void comprobarPrestada() throws SQLException {
+            if (devuelta) {
+                throw new SQLException("La conexión ya se devolvió al pool.");
+            }
+        }
+
+        /**
+         * Invoca el método sobre el objeto real; si falla por un error de
+         * conexión (SQLState 08xxx) la conexión no se reutilizará.
+         */
+        Object delegar(Object real, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(real, args);
+            } catch (InvocationTargetException ex) {
+                Throwable causa = ex.getCause();
+                if (causa instanceof SQLException) {
+                    String estado = ((SQLException) causa).getSQLState();
+                    if (estado != null && estado.startsWith("08")) {
+                        danada = true;
+                    }
+                }
+                throw causa;
+            }
+        }
+
+        /**
+         * Envuelve en un RecursoPrestado las sentencias, metadatos y ResultSet;
+         * cualquier otro valor se devuelve tal cual.
+         */
+        Object envolver(Object resultado, Class<?> tipo, Object padre) {
+            if (resultado == null || !TIPOS_ENVUELTOS.contains(tipo)) {
+                return resultado;
+            }
+            return Proxy.newProxyInstance(
+                tipo.getClassLoader(),
+                new Class<?>[] { tipo },
+                new RecursoPrestado(resultado, this, padre)
+            );
+        }
+    }
+
+    /**
+     * unwrap/isWrapperFor de una interfaz que el propio proxy implementa
+     * (Connection, Statement...) responden con el proxy: si devolvieran el
+     * objeto real, cerrarlo o reconfigurarlo estropearía la conexión del
+     * pool. Para cualquier otro tipo (las clases del driver) devuelve null y
+     * la llamada pasa al objeto real.
+     */
+    private static Object unwrapAlProxy(Object proxy, Method method, Object[] args) {
+        if (args == null || args.length != 1 || !(args[0] instanceof Class)) {
+            return null;
+        }
+        Class<?> tipo = (Class<?>) args[0];
+        if (!tipo.isInstance(proxy)) {
+            return null;
+        }
+        switch (method.getName()) {
+            case "unwrap":
+                return proxy;
+            case "isWrapperFor":
+                return Boolean.TRUE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Manejador de las sentencias, metadatos y ResultSet de una conexión
+     * prestada: getConnection() devuelve el proxy de la conexión (cerrarla
+     * la devuelve al pool) y getStatement() el proxy de la sentencia.
+     * Tras devolver la conexión solo se permite cerrarlos.
+     */
+    private static final class RecursoPrestado implements InvocationHandler {
+        private final Object real;
+        private final ConexionPrestada conexion;
+        // Proxy del objeto que creó este (conexión, sentencia o metadatos)
+        private final Object padre;
+
+        RecursoPrestado(Object real, ConexionPrestada conexion, Object padre) {
+            this.real = real;
+            this.conexion = conexion;
+            this.padre = padre;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    if (method.getParameterCount() == 0) {
+                        conexion.comprobarPrestada();
+                        return conexion.proxy;
+                    }
+                    break;
+                case "getStatement":
+                    if (method.getParameterCount() == 0 && padre instanceof Statement) {
+                        return padre;
+                    }
+                    break;
+                case "close":
+                case "isClosed":
+                    return conexion.delegar(real, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return real.toString();
+                default:
+                    break;
+            }
+            conexion.comprobarPrestada();
+            Object propio = unwrapAlProxy(proxy, method, args);
+            if (propio != null) {
+                return propio;
+            }
+            return conexion.envolver(
+                conexion.delegar(real, method, args), method.getReturnType(), proxy
+            );
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package lotes;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+import dao.ConexionBD;
+import dao.ConfiguracionPool;
+import dao.DibujoDAO;
+import dao.FiguraDAO;
+import model.Figura;
+
+/**
+ * Genera un PNG por cada dibujo guardado en la BD, sin abrir la ventana
+ * (java.awt.headless=true). Pensado para miniaturas e informes nocturnos.
+ *
+ * Uso:
+ * <pre>
+ *   java -cp Paint.jar:mysql-connector.jar lotes.RenderizadorLotes carpeta [nombre ...]
+ * </pre>
+ * Sin nombres se procesan todos los dibujos. Cada PNG se llama como su dibujo.
+ *
+ * Opciones (propiedades del sistema, igual que DB_URL, DB_USER...):
+ *   LOTES_ANCHO, LOTES_ALTO   tamaño de la imagen (por defecto 800x600, el del lienzo)
+ *   LOTES_ESCALA              escala aplicada a las figuras (por defecto 1.0)
+ *   LOTES_MAX_BD              consultas a la BD a la vez (por defecto DB_POOL_MAX)
+ *   LOTES_MAX_EN_CURSO        dibujos cargados en memoria a la vez (por
+ *                             defecto el doble de procesadores, y nunca
+ *                             menos que LOTES_MAX_BD)
+ *
+ * Cada dibujo se procesa en su propio hilo virtual: mientras unos esperan a
+ * la BD otros pintan o escriben su PNG. Un semáforo limita cuántos consultan
+ * la BD a la vez, para no agotar el pool de conexiones, y otro cuántos hay
+ * entre la carga y el final de la escritura, para que las figuras de los
+ * dibujos ya leídos no se acumulen en memoria si la BD va más rápida que el
+ * pintado.
+ */
+public class RenderizadorLotes {
+    // Se crea al cargar el primer dibujo: renderizar() no necesita la BD
+    private FiguraDAO figuraDAO;
+    private final int ancho;
+    private final int alto;
+    private final double escala;
+    private final Semaphore permisosBD;
+    private final Semaphore permisosEnCurso;
+    private Color colorFondo = Color.WHITE;
+
+    /**
+     * @param ancho ancho de las imágenes, en píxeles
+     * @param alto alto de las imágenes, en píxeles
+     * @param escala escala de las figuras (1.0 = como en el lienzo sin zoom)
+     * @param maxConsultasBD dibujos que pueden estar leyéndose de la BD a la vez
+     */
+    public RenderizadorLotes(int ancho, int alto, double escala, int maxConsultasBD) {
+        this(ancho, alto, escala, maxConsultasBD,
+             Math.max(maxConsultasBD, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param ancho ancho de las imágenes, en píxeles
+     * @param alto alto de las imágenes, en píxeles
+     * @param escala escala de las figuras (1.0 = como en el lienzo sin zoom)
+     * @param maxConsultasBD dibujos que pueden estar leyéndose de la BD a la vez
+     * @param maxEnCurso dibujos que pueden estar a la vez entre la carga y el
+     *                   final de la escritura de su PNG (&gt;= maxConsultasBD)
+     */
+    public RenderizadorLotes(int ancho, int alto, double escala, int maxConsultasBD,
+                             int maxEnCurso) {
+        if (ancho <= 0 || alto <= 0 || escala <= 0 || maxConsultasBD < 1
+                || maxEnCurso < maxConsultasBD) {
+            throw new IllegalArgumentException("Parámetros de renderizado inválidos: "
+                + ancho + "x" + alto + ", escala=" + escala + ", maxBD=" + maxConsultasBD
+                + ", maxEnCurso=" + maxEnCurso);
+        }
+        this.ancho = ancho;
+        this.alto = alto;
+        this.escala = escala;
+        this.permisosBD = new Semaphore(maxConsultasBD);
+        this.permisosEnCurso = new Semaphore(maxEnCurso);
+    }
+
+    public void setColorFondo(Color colorFondo) {
+        this.colorFondo = colorFondo;
+    }
+
+    /**
+     * Pinta las figuras, en orden, sobre una imagen nueva del fondo indicado.
+     */
+    public BufferedImage renderizar(List<Figura> figuras) {
+        BufferedImage img = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        g2.setColor(colorFondo);
+        g2.fillRect(0, 0, ancho, alto);
+        if (escala != 1.0) {
+            g2.scale(escala, escala);
+        }
+        for (Figura f : figuras) {
+            f.dibujar(g2);
+        }
+        g2.dispose();
+        return img;
+    }
+
+    /**
+     * Carga, pinta y guarda como carpeta/nombre.png un dibujo.
+     */
+    public void renderizarDibujo(int idDibujo, String nombre, Path carpeta)
+            throws SQLException, IOException, InterruptedException {
+        permisosEnCurso.acquire();
+        try {
+            List<Figura> figuras;
+            permisosBD.acquire();
+            try {
+                figuras = getFiguraDAO().cargarFigurasPorDibujo(idDibujo);
+            } finally {
+                permisosBD.release();
+            }
+            BufferedImage img = renderizar(figuras);
+            ImageIO.write(img, "png", carpeta.resolve(nombre + ".png").toFile());
+        } finally {
+            permisosEnCurso.release();
+        }
+    }
+
+    private synchronized FiguraDAO getFiguraDAO() {
+        if (figuraDAO == null) {
+            figuraDAO = new FiguraDAO();
+        }
+        return figuraDAO;
+    }
+
+    /**
+     * Procesa todos los dibujos (id → nombre), cada uno en un hilo virtual,
+     * y espera a que terminen. Los fallos se informan por la salida de error
+     * sin detener el resto.
+     *
+     * @return número de dibujos que no se pudieron generar
+     */
+    public int renderizarTodos(Map<Integer, String> dibujos, Path carpeta) {
+        AtomicInteger errores = new AtomicInteger();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<Integer, String> d : dibujos.entrySet()) {
+                hilos.submit(() -> {
+                    try {
+                        renderizarDibujo(d.getKey(), d.getValue(), carpeta);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        errores.incrementAndGet();
+                        System.err.println("Dibujo '" + d.getValue() + "' interrumpido");
+                    } catch (SQLException | IOException | RuntimeException ex) {
+                        errores.incrementAndGet();
+                        System.err.println("Error en el dibujo '" + d.getValue() + "': " + ex);
+                    }
+                });
+            }
+        } // close() espera a que acaben todas las tareas
+        return errores.get();
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("Uso: java lotes.RenderizadorLotes carpeta_salida [nombre_dibujo ...]");
+            System.exit(2);
+        }
+        ConexionBD conexion;
+        try {
+            conexion = ConexionBD.getInstancia();
+        } catch (RuntimeException ex) {
+            // El detalle ya se ha escrito en la salida de error
+            System.err.println(ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        int errores;
+        try {
+            Path carpeta = Paths.get(args[0]);
+            Files.createDirectories(carpeta);
+
+            DibujoDAO dibujoDAO = new DibujoDAO();
+            Map<Integer, String> dibujos = new LinkedHashMap<>();
+            if (args.length == 1) {
+                dibujos.putAll(dibujoDAO.listarDibujos());
+            } else {
+                for (int i = 1; i < args.length; i++) {
+                    int id = dibujoDAO.obtenerIdPorNombre(args[i]);
+                    if (id == -1) {
+                        System.err.println("No existe el dibujo '" + args[i] + "'");
+                    } else {
+                        dibujos.put(id, args[i]);
+                    }
+                }
+            }
+
+            int maxBD = Integer.getInteger("LOTES_MAX_BD",
+                ConfiguracionPool.desdePropiedades().getMaxConexiones());
+            RenderizadorLotes renderizador = new RenderizadorLotes(
+                Integer.getInteger("LOTES_ANCHO", 800),
+                Integer.getInteger("LOTES_ALTO", 600),
+                Double.parseDouble(System.getProperty("LOTES_ESCALA", "1.0")),
+                maxBD,
+                Integer.getInteger("LOTES_MAX_EN_CURSO",
+                    Math.max(maxBD, 2 * Runtime.getRuntime().availableProcessors()))
+            );
+            long inicio = System.nanoTime();
+            errores = renderizador.renderizarTodos(dibujos, carpeta);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            int correctos = dibujos.size() - errores;
+            System.out.printf("%d dibujos en %.2f s (%.1f dibujos/s), %d errores%n",
+                correctos, segundos, correctos / Math.max(segundos, 1e-9), errores);
+        } catch (IOException | SQLException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            errores = 1;
+        } finally {
+            conexion.cerrar();
+        }
+        System.exit(errores == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,347 @@
+package model;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de figuras por columnas: en lugar de un objeto por figura (más sus
+ * Color y arrays de vértices), cada campo es un array de tipos primitivos
+ * indexado por la posición de la figura:
+ *
+ *   tipo     tipo de figura (+ bit de relleno)
+ *   a..d     coordenadas: (x, y), (x1, y1, x2, y2), (cx, cy, radio, nLados)
+ *            o, para polígonos irregulares, (inicio, nº) en el pool de vértices
+ *   angulo   ángulo inicial de los polígonos regulares
+ *   trazo, relleno   colores ARGB empaquetados en un int
+ *
+ * Los vértices de todos los polígonos irregulares van seguidos en un pool
+ * compartido (verticesX, verticesY). Una figura ocupa así unos 33 bytes más
+ * 8 por vértice, y recorrer las columnas no salta por el heap.
+ *
+ * dibujar(i, g) pinta directamente desde las columnas, sin crear objetos
+ * (salvo los vértices de los polígonos regulares). get(i) sí crea la Figura
+ * (PuntoFigura, LineaFigura...) en el momento en que se pide; las figuras son
+ * inmutables, así que se comporta igual que la original. En ambos casos los
+ * Color salen de una pequeña caché compartida en lugar de crearse cada vez.
+ *
+ * Los arrays nunca se modifican por debajo del tamaño actual: al crecer o al
+ * vaciarse se sustituyen por otros, de modo que una instantánea puede seguir
+ * leyendo los suyos sin copiarlos.
+ */
+public class AlmacenColumnar implements AlmacenFiguras {
+    private static final byte PUNTO = 1;
+    private static final byte LINEA = 2;
+    private static final byte CIRCULO = 3;
+    private static final byte POLIG_REG = 4;
+    private static final byte POLIG_IRREG = 5;
+    // Cualquier otra implementación de Figura: se guarda el objeto tal cual
+    private static final byte OTRA = 6;
+    private static final byte MASCARA_TIPO = 0x0F;
+    private static final byte BIT_RELLENO = 0x10;
+
+    // Caché de Color por ARGB, de acceso directo (cada color va a una posición fija).
+    // Los dibujos suelen usar pocos colores, así que casi siempre acierta.
+    private static final int TAMANO_CACHE_COLORES = 256;
+    private static final AtomicReferenceArray<Color> CACHE_COLORES =
+        new AtomicReferenceArray<>(TAMANO_CACHE_COLORES);
+    // Vértices de un polígono irregular copiados al inicio de un array para
+    // pasarlos a Graphics2D (que no admite desplazamiento); uno por hilo
+    private static final ThreadLocal<int[][]> BUFFER_VERTICES =
+        ThreadLocal.withInitial(() -> new int[][] { new int[16], new int[16] });
+
+    private Columnas col = new Columnas(64, 256, 4);
+    private int n = 0;
+    private int nVertices = 0;
+    private int nOtras = 0;
+
+    @Override
+    public int tamano() {
+        return n;
+    }
+
+    @Override
+    public Figura get(int i) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fuera de 0.." + (n - 1));
+        }
+        return col.figura(i);
+    }
+
+    @Override
+    public void dibujar(int i, Graphics2D g) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fuera de 0.." + (n - 1));
+        }
+        col.dibujar(i, g);
+    }
+
+    @Override
+    public Consumer<Graphics2D> pintorDe(int[] indices) {
+        for (int i : indices) {
+            if (i < 0 || i >= n) {
+                throw new IndexOutOfBoundsException("Índice " + i + " fuera de 0.." + (n - 1));
+            }
+        }
+        // Las columnas no cambian por debajo de n: basta con quedarse con las actuales
+        Columnas c = col;
+        return g -> {
+            for (int i : indices) {
+                c.dibujar(i, g);
+            }
+        };
+    }
+
+    @Override
+    public void agregar(Figura f) {
+        if (n == col.tipo.length) {
+            col = col.ampliar(n * 2, col.verticesX.length, col.otras.length);
+        }
+        Columnas c = col;
+        if (f instanceof PuntoFigura) {
+            PuntoFigura p = (PuntoFigura) f;
+            c.tipo[n] = PUNTO;
+            c.a[n] = p.getX();
+            c.b[n] = p.getY();
+            c.trazo[n] = p.getColorTrazo().getRGB();
+        }
+        else if (f instanceof LineaFigura) {
+            LineaFigura l = (LineaFigura) f;
+            c.tipo[n] = LINEA;
+            c.a[n] = l.getX1();
+            c.b[n] = l.getY1();
+            c.c[n] = l.getX2();
+            c.d[n] = l.getY2();
+            c.trazo[n] = l.getColorTrazo().getRGB();
+        }
+        else if (f instanceof CirculoFigura) {
+            CirculoFigura ci = (CirculoFigura) f;
+            c.tipo[n] = (byte) (CIRCULO | (ci.isRelleno() ? BIT_RELLENO : 0));
+            c.a[n] = ci.getCentroX();
+            c.b[n] = ci.getCentroY();
+            c.c[n] = ci.getRadio();
+            c.trazo[n] = ci.getColorTrazo().getRGB();
+            c.relleno[n] = ci.getColorRelleno().getRGB();
+        }
+        else if (f instanceof PoligonoRegularFigura) {
+            PoligonoRegularFigura prf = (PoligonoRegularFigura) f;
+            c.tipo[n] = (byte) (POLIG_REG | (prf.isRelleno() ? BIT_RELLENO : 0));
+            c.a[n] = prf.getCentroX();
+            c.b[n] = prf.getCentroY();
+            c.c[n] = prf.getRadio();
+            c.d[n] = prf.getnLados();
+            c.angulo[n] = prf.getAnguloInicio();
+            c.trazo[n] = prf.getColorTrazo().getRGB();
+            c.relleno[n] = prf.getColorRelleno().getRGB();
+        }
+        else if (f instanceof PoligonoIrregularFigura) {
+            PoligonoIrregularFigura pirf = (PoligonoIrregularFigura) f;
+            int nv = pirf.getNumVertices();
+            if (nVertices + nv > c.verticesX.length) {
+                int cap = Math.max(c.verticesX.length * 2, nVertices + nv);
+                col = c = c.ampliar(c.tipo.length, cap, c.otras.length);
+            }
+            for (int k = 0; k < nv; k++) {
+                c.verticesX[nVertices + k] = pirf.getVerticeX(k);
+                c.verticesY[nVertices + k] = pirf.getVerticeY(k);
+            }
+            c.tipo[n] = (byte) (POLIG_IRREG | (pirf.isRelleno() ? BIT_RELLENO : 0));
+            c.a[n] = nVertices;
+            c.b[n] = nv;
+            c.trazo[n] = pirf.getColorTrazo().getRGB();
+            c.relleno[n] = pirf.getColorRelleno().getRGB();
+            nVertices += nv;
+        }
+        else {
+            if (nOtras == c.otras.length) {
+                col = c = c.ampliar(c.tipo.length, c.verticesX.length, nOtras * 2);
+            }
+            c.otras[nOtras] = f;
+            c.tipo[n] = OTRA;
+            c.a[n] = nOtras++;
+        }
+        n++;
+    }
+
+    @Override
+    public void clear() {
+        // Arrays nuevos: las instantáneas anteriores siguen usando los suyos
+        col = new Columnas(64, 256, 4);
+        n = 0;
+        nVertices = 0;
+        nOtras = 0;
+    }
+
+    @Override
+    public List<Figura> getInstantanea() {
+        return new Instantanea(col, n);
+    }
+
+    /**
+     * Arrays de datos. Se sustituye entero al crecer, nunca se encoge.
+     */
+    private static final class Columnas {
+        final byte[] tipo;
+        final int[] a, b, c, d;
+        final double[] angulo;
+        final int[] trazo, relleno;
+        final int[] verticesX, verticesY;
+        final Figura[] otras;
+
+        Columnas(int capacidad, int capacidadVertices, int capacidadOtras) {
+            tipo = new byte[capacidad];
+            a = new int[capacidad];
+            b = new int[capacidad];
+            c = new int[capacidad];
+            d = new int[capacidad];
+            angulo = new double[capacidad];
+            trazo = new int[capacidad];
+            relleno = new int[capacidad];
+            verticesX = new int[capacidadVertices];
+            verticesY = new int[capacidadVertices];
+            otras = new Figura[capacidadOtras];
+        }
+
+        private Columnas(Columnas o, int capacidad, int capacidadVertices, int capacidadOtras) {
+            tipo = Arrays.copyOf(o.tipo, capacidad);
+            a = Arrays.copyOf(o.a, capacidad);
+            b = Arrays.copyOf(o.b, capacidad);
+            c = Arrays.copyOf(o.c, capacidad);
+            d = Arrays.copyOf(o.d, capacidad);
+            angulo = Arrays.copyOf(o.angulo, capacidad);
+            trazo = Arrays.copyOf(o.trazo, capacidad);
+            relleno = Arrays.copyOf(o.relleno, capacidad);
+            verticesX = Arrays.copyOf(o.verticesX, capacidadVertices);
+            verticesY = Arrays.copyOf(o.verticesY, capacidadVertices);
+            otras = Arrays.copyOf(o.otras, capacidadOtras);
+        }
+
+        Columnas ampliar(int capacidad, int capacidadVertices, int capacidadOtras) {
+            return new Columnas(this, capacidad, capacidadVertices, capacidadOtras);
+        }
+
+        Figura figura(int i) {
+            boolean rell = (tipo[i] & BIT_RELLENO) != 0;
+            switch (tipo[i] & MASCARA_TIPO) {
+                case PUNTO:
+                    return new PuntoFigura(a[i], b[i], color(trazo[i]));
+                case LINEA:
+                    return new LineaFigura(a[i], b[i], c[i], d[i], color(trazo[i]));
+                case CIRCULO:
+                    return new CirculoFigura(a[i], b[i], c[i],
+                        color(trazo[i]), color(relleno[i]), rell);
+                case POLIG_REG:
+                    return new PoligonoRegularFigura(a[i], b[i], c[i], d[i], angulo[i],
+                        color(trazo[i]), color(relleno[i]), rell);
+                case POLIG_IRREG: {
+                    // Una sola copia: la figura se queda con los arrays recién creados
+                    int inicio = a[i], nv = b[i];
+                    return PoligonoIrregularFigura.sinCopiar(
+                        Arrays.copyOfRange(verticesX, inicio, inicio + nv),
+                        Arrays.copyOfRange(verticesY, inicio, inicio + nv),
+                        color(trazo[i]), color(relleno[i]), rell);
+                }
+                case OTRA:
+                    return otras[a[i]];
+                default:
+                    throw new IllegalStateException("Tipo de figura desconocido: " + tipo[i]);
+            }
+        }
+
+        void dibujar(int i, Graphics2D g) {
+            boolean rell = (tipo[i] & BIT_RELLENO) != 0;
+            switch (tipo[i] & MASCARA_TIPO) {
+                case PUNTO:
+                    PuntoFigura.dibujar(g, a[i], b[i], color(trazo[i]));
+                    break;
+                case LINEA:
+                    LineaFigura.dibujar(g, a[i], b[i], c[i], d[i], color(trazo[i]));
+                    break;
+                case CIRCULO:
+                    CirculoFigura.dibujar(g, a[i], b[i], c[i],
+                        color(trazo[i]), color(relleno[i]), rell);
+                    break;
+                case POLIG_REG:
+                    PoligonoRegularFigura.dibujar(g, a[i], b[i], c[i], d[i], angulo[i],
+                        color(trazo[i]), color(relleno[i]), rell);
+                    break;
+                case POLIG_IRREG: {
+                    int inicio = a[i], nv = b[i];
+                    int[] xs = verticesX, ys = verticesY;
+                    if (inicio != 0) {
+                        int[][] buffer = bufferVertices(nv);
+                        xs = buffer[0];
+                        ys = buffer[1];
+                        System.arraycopy(verticesX, inicio, xs, 0, nv);
+                        System.arraycopy(verticesY, inicio, ys, 0, nv);
+                    }
+                    PoligonoIrregularFigura.dibujar(g, xs, ys, nv,
+                        color(trazo[i]), color(relleno[i]), rell);
+                    break;
+                }
+                case OTRA:
+                    otras[a[i]].dibujar(g);
+                    break;
+                default:
+                    throw new IllegalStateException("Tipo de figura desconocido: " + tipo[i]);
+            }
+        }
+
+        private static int[][] bufferVertices(int nv) {
+            int[][] buffer = BUFFER_VERTICES.get();
+            if (buffer[0].length < nv) {
+                int cap = Math.max(buffer[0].length * 2, nv);
+                buffer[0] = new int[cap];
+                buffer[1] = new int[cap];
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Color con ese ARGB, reutilizando el de la caché si es el mismo.
+     * Color es inmutable y la caché es atómica: se puede llamar desde
+     * cualquier hilo (las instantáneas se leen fuera del EDT).
+     */
+    static Color color(int argb) {
+        int h = argb ^ (argb >>> 8) ^ (argb >>> 16) ^ (argb >>> 24);
+        int k = h & (TAMANO_CACHE_COLORES - 1);
+        Color c = CACHE_COLORES.get(k);
+        if (c == null || c.getRGB() != argb) {
+            c = new Color(argb, true);
+            CACHE_COLORES.set(k, c);
+        }
+        return c;
+    }
+
+    /**
+     * Vista de solo lectura de las n primeras figuras de unas columnas.
+     */
+    private static final class Instantanea extends AbstractList<Figura> implements RandomAccess {
+        private final Columnas col;
+        private final int n;
+
+        Instantanea(Columnas col, int n) {
+            this.col = col;
+            this.n = n;
+        }
+
+        @Override
+        public Figura get(int i) {
+            if (i < 0 || i >= n) {
+                throw new IndexOutOfBoundsException("Índice " + i + " fuera de 0.." + (n - 1));
+            }
+            return col.figura(i);
+        }
+
+        @Override
+        public int size() {
+            return n;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.awt.Graphics2D;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dónde guarda LienzoModel sus figuras. Igual que el modelo, solo admite
+ * añadir al final y vaciar; el índice de cada figura es su orden Z.
+ *
+ * Hay dos implementaciones:
+ *  - AlmacenLista: una lista de objetos Figura (la opción por defecto).
+ *  - AlmacenColumnar: los datos de todas las figuras en arrays de tipos
+ *    primitivos, uno por campo; cada Figura se crea al pedirla.
+ */
+public interface AlmacenFiguras {
+    /**
+     * Número de figuras guardadas.
+     */
+    int tamano();
+
+    /**
+     * Figura en la posición i (0 = la primera que se agregó).
+     */
+    Figura get(int i);
+
+    /**
+     * Pinta la figura de la posición i. Equivale a get(i).dibujar(g), pero
+     * un almacén puede hacerlo sin crear la Figura.
+     */
+    default void dibujar(int i, Graphics2D g) {
+        get(i).dibujar(g);
+    }
+
+    /**
+     * Pintor de las figuras de esas posiciones tal como están ahora: se puede
+     * usar desde otro hilo aunque después se añadan figuras o se vacíe el
+     * almacén. Pinta en el orden del array.
+     */
+    default Consumer<Graphics2D> pintorDe(int[] indices) {
+        Figura[] figuras = new Figura[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            figuras[k] = get(indices[k]);
+        }
+        return g -> {
+            for (Figura f : figuras) {
+                f.dibujar(g);
+            }
+        };
+    }
+
+    /**
+     * Añade una figura al final.
+     */
+    void agregar(Figura f);
+
+    /**
+     * Elimina todas las figuras.
+     */
+    void clear();
+
+    /**
+     * Lista inmutable con las figuras actuales, que no cambia aunque después
+     * se añadan figuras o se vacíe el almacén. Se puede leer desde otro hilo.
+     */
+    List<Figura> getInstantanea();
+}
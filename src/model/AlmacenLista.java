@@ -0,0 +1,37 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacén de figuras basado en una lista de objetos: cada figura se guarda
+ * tal cual se agregó.
+ */
+public class AlmacenLista implements AlmacenFiguras {
+    private final List<Figura> figuras = new ArrayList<>();
+
+    @Override
+    public int tamano() {
+        return figuras.size();
+    }
+
+    @Override
+    public Figura get(int i) {
+        return figuras.get(i);
+    }
+
+    @Override
+    public void agregar(Figura f) {
+        figuras.add(f);
+    }
+
+    @Override
+    public void clear() {
+        figuras.clear();
+    }
+
+    @Override
+    public List<Figura> getInstantanea() {
+        return List.copyOf(figuras);
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Búfer de caracteres para escribir SVG sin objetos intermedios.
+ *
+ * Es un Appendable como StringBuilder, pero sin sincronización ni
+ * comprobaciones de más, y con append(int) que escribe los dígitos
+ * directamente en el array. Se reutiliza: tras volcarlo con escribirEn()
+ * se vacía con clear() y la memoria reservada se conserva.
+ *
+ * No es seguro para varios hilos; cada hilo usa el suyo.
+ */
+public final class BufferSVG implements Appendable, CharSequence {
+    private char[] datos;
+    private int tamano = 0;
+
+    public BufferSVG() {
+        this(256);
+    }
+
+    public BufferSVG(int capacidadInicial) {
+        datos = new char[Math.max(capacidadInicial, 16)];
+    }
+
+    @Override
+    public BufferSVG append(CharSequence csq) {
+        if (csq instanceof String) {
+            return append((String) csq);
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public BufferSVG append(CharSequence csq, int inicio, int fin) {
+        asegurar(fin - inicio);
+        for (int i = inicio; i < fin; i++) {
+            datos[tamano++] = csq.charAt(i);
+        }
+        return this;
+    }
+
+    public BufferSVG append(String s) {
+        int n = s.length();
+        asegurar(n);
+        s.getChars(0, n, datos, tamano);
+        tamano += n;
+        return this;
+    }
+
+    @Override
+    public BufferSVG append(char c) {
+        asegurar(1);
+        datos[tamano++] = c;
+        return this;
+    }
+
+    /**
+     * Añade el entero en decimal, igual que Integer.toString(v) pero sin crear la cadena.
+     */
+    public BufferSVG append(int v) {
+        if (v == Integer.MIN_VALUE) {
+            return append("-2147483648");
+        }
+        asegurar(11);
+        if (v < 0) {
+            datos[tamano++] = '-';
+            v = -v;
+        }
+        int digitos = contarDigitos(v);
+        int pos = tamano + digitos;
+        do {
+            datos[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        tamano += digitos;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return tamano;
+    }
+
+    @Override
+    public char charAt(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de 0.." + (tamano - 1));
+        }
+        return datos[indice];
+    }
+
+    @Override
+    public CharSequence subSequence(int inicio, int fin) {
+        return new String(datos, inicio, fin - inicio);
+    }
+
+    /**
+     * Vacía el búfer (conserva la memoria reservada).
+     */
+    public void clear() {
+        tamano = 0;
+    }
+
+    /**
+     * Escribe el contenido en w (no lo vacía).
+     */
+    public void escribirEn(Writer w) throws IOException {
+        w.write(datos, 0, tamano);
+    }
+
+    /**
+     * Array interno; solo son válidas las posiciones 0..length()-1.
+     * Para volcarlo sin copiar (p. ej. con CharBuffer.wrap); no debe modificarse.
+     */
+    public char[] getDatos() {
+        return datos;
+    }
+
+    @Override
+    public String toString() {
+        return new String(datos, 0, tamano);
+    }
+
+    private void asegurar(int extra) {
+        if (tamano + extra > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + extra));
+        }
+    }
+
+    private static int contarDigitos(int v) {
+        int d = 1;
+        while (v >= 10) {
+            v /= 10;
+            d++;
+        }
+        return d;
+    }
+}
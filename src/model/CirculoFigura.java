@@ -2,17 +2,19 @@ package model;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.io.IOException;
 
 /**
  * Representa un círculo (o circunferencia) dado centro (x,y), radio y colores.
  * Permite opcionalmente rellenarlo o solo trazarlo.
  */
 public class CirculoFigura implements Figura {
-    private int centroX, centroY;
-    private int radio;
-    private Color colorTrazo;
-    private Color colorRelleno;
-    private boolean relleno;  // true = rellenar, false = solo contorno
+    private final int centroX, centroY;
+    private final int radio;
+    private final Color colorTrazo;
+    private final Color colorRelleno;
+    private final boolean relleno;  // true = rellenar, false = solo contorno
+    private final Limites limites;
 
     /**
      * @param centroX coordenada x del centro
@@ -30,10 +32,20 @@ public class CirculoFigura implements Figura {
         this.colorTrazo = colorTrazo;
         this.colorRelleno = colorRelleno;
         this.relleno = relleno;
+        int r = Math.abs(radio);
+        this.limites = Limites.deExtremos(centroX - r, centroY - r, centroX + r, centroY + r);
     }
 
     @Override
     public void dibujar(Graphics2D g) {
+        dibujar(g, centroX, centroY, radio, colorTrazo, colorRelleno, relleno);
+    }
+
+    /**
+     * Pinta un círculo sin necesidad de crear la figura (lo usa AlmacenColumnar).
+     */
+    static void dibujar(Graphics2D g, int centroX, int centroY, int radio,
+                        Color colorTrazo, Color colorRelleno, boolean relleno) {
         int x = centroX - radio;
         int y = centroY - radio;
         int diam = radio * 2;
@@ -48,18 +60,42 @@ public class CirculoFigura implements Figura {
 
     @Override
     public String toSVG() {
-        String strokeRGB = String.format("rgb(%d,%d,%d)",
-                colorTrazo.getRed(), colorTrazo.getGreen(), colorTrazo.getBlue());
-        String fillRGB = relleno
-                ? String.format("rgb(%d,%d,%d)", 
-                        colorRelleno.getRed(), colorRelleno.getGreen(), colorRelleno.getBlue())
-                : "none";
+        return FormatoSVG.aTexto(this);
+    }
 
+    @Override
+    public void escribirSVG(Appendable out) throws IOException {
         // <circle cx="..." cy="..." r="..." stroke="..." fill="..."/>
-        return String.format(
-            "<circle cx=\"%d\" cy=\"%d\" r=\"%d\" stroke=\"%s\" fill=\"%s\" />",
-            centroX, centroY, radio, strokeRGB, fillRGB
-        );
+        abrirEtiquetaSVG(out);
+        out.append(" stroke=\"").append(FormatoSVG.rgb(colorTrazo))
+           .append("\" fill=\"").append(FormatoSVG.relleno(colorRelleno, relleno))
+           .append("\" />");
+    }
+
+    @Override
+    public void escribirGeometriaSVG(Appendable out) throws IOException {
+        abrirEtiquetaSVG(out);
+        out.append("/>");
+    }
+
+    @Override
+    public int getRgbTrazoSVG() { return colorTrazo.getRGB() & 0xFFFFFF; }
+    @Override
+    public int getRgbRellenoSVG() { return relleno ? colorRelleno.getRGB() & 0xFFFFFF : SIN_COLOR; }
+
+    private void abrirEtiquetaSVG(Appendable out) throws IOException {
+        out.append("<circle cx=\"");
+        FormatoSVG.entero(out, centroX);
+        out.append("\" cy=\"");
+        FormatoSVG.entero(out, centroY);
+        out.append("\" r=\"");
+        FormatoSVG.entero(out, radio);
+        out.append('"');
+    }
+
+    @Override
+    public Limites getLimites() {
+        return limites;
     }
 
     // Getters para persistencia:
@@ -0,0 +1,358 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Busca intersecciones entre los lados de un polígono o de una polilínea.
+ *
+ * - hayAutoInterseccion/buscarCruce: el polígono cerrado (el último vértice
+ *   se une con el primero) es simple si ningún par de lados no consecutivos
+ *   se toca y ningún par de lados consecutivos se solapa.
+ * - hayCruceEnPolilinea/buscarCruceEnPolilinea: la regla con la que se valida
+ *   un polígono irregular al terminarlo (la de siempre): solo cuentan los
+ *   cruces propios entre lados de la polilínea abierta, sin el lado de
+ *   cierre y sin comparar el primer lado con el último. Tocarse en un
+ *   vértice o solaparse en línea recta no es un cruce.
+ *
+ * Usa el barrido de Shamos–Hoey: se recorren los extremos de los lados en
+ * orden (x, y) manteniendo los lados que corta la línea de barrido ordenados
+ * de abajo arriba, y solo se comparan lados que quedan vecinos en ese orden.
+ * Coste O(n log n) frente al O(n²) de probar todos los pares.
+ *
+ * Todas las pruebas de orientación son exactas sobre coordenadas int: los
+ * productos se comparan en 128 bits (Math.multiplyHigh), así que no hay
+ * desbordamiento ni error de redondeo con coordenadas grandes.
+ *
+ * Los vértices repetidos consecutivos (p. ej. un doble clic) se ignoran.
+ */
+public final class DetectorIntersecciones {
+
+    private DetectorIntersecciones() {
+    }
+
+    /**
+     * Indica si el polígono de vértices (xs[i], ys[i]), i &lt; n, tiene algún
+     * cruce, contacto o solapamiento entre sus lados.
+     */
+    public static boolean hayAutoInterseccion(int[] xs, int[] ys, int n) {
+        return buscarCruce(xs, ys, n) != null;
+    }
+
+    /**
+     * Busca un par de lados que se tocan. El lado i va del vértice i al
+     * i+1 (el último, del n-1 al 0).
+     *
+     * @return {i, j} con los dos lados (i &lt; j), o null si el polígono es simple
+     */
+    public static int[] buscarCruce(int[] xs, int[] ys, int n) {
+        return new Barrido(xs, ys, n, true).ejecutar();
+    }
+
+    /**
+     * Indica si dos lados de la polilínea abierta de vértices (xs[i], ys[i]),
+     * i &lt; n, se cruzan propiamente (ver la descripción de la clase).
+     */
+    public static boolean hayCruceEnPolilinea(int[] xs, int[] ys, int n) {
+        return buscarCruceEnPolilinea(xs, ys, n) != null;
+    }
+
+    /**
+     * Busca un par de lados de la polilínea abierta que se crucen propiamente.
+     * El lado i va del vértice i al i+1, para i &lt; n-1.
+     *
+     * @return {i, j} con los dos lados (i &lt; j), o null si no hay cruces
+     */
+    public static int[] buscarCruceEnPolilinea(int[] xs, int[] ys, int n) {
+        return new Barrido(xs, ys, n, false).ejecutar();
+    }
+
+    /**
+     * Signo de la orientación de c respecto a la recta a→b:
+     * 1 = a la izquierda (giro antihorario), -1 = a la derecha, 0 = alineados.
+     */
+    static int orientacion(int ax, int ay, int bx, int by, int cx, int cy) {
+        // (bx-ax)*(cy-ay) - (by-ay)*(cx-ax); cada diferencia cabe en long,
+        // pero su producto puede necesitar 64 bits con signo y más
+        return compararProductos((long) bx - ax, (long) cy - ay, (long) by - ay, (long) cx - ax);
+    }
+
+    /**
+     * Compara a*b con c*d sin desbordamiento (productos de 128 bits).
+     */
+    static int compararProductos(long a, long b, long c, long d) {
+        long alto1 = Math.multiplyHigh(a, b);
+        long alto2 = Math.multiplyHigh(c, d);
+        if (alto1 != alto2) {
+            return alto1 < alto2 ? -1 : 1;
+        }
+        return Integer.signum(Long.compareUnsigned(a * b, c * d));
+    }
+
+    /**
+     * Estado de un barrido. Trabaja sobre una copia compacta de los vértices
+     * (sin repetidos consecutivos) y recuerda su índice original.
+     */
+    private static final class Barrido {
+        private final int[] px, py;   // vértices sin repetidos consecutivos
+        private final int[] salida;   // índice original del lado que sale de cada vértice
+        private final int m;          // vértices
+        private final int numLados;   // m si está cerrado, m-1 si no
+        // true: polígono cerrado, cualquier contacto cuenta;
+        // false: polilínea abierta, solo cruces propios
+        private final boolean cerrado;
+        private final int ultimoLadoOriginal;
+        // Extremo izquierdo y derecho (en orden x, y) de cada lado
+        private final int[] izq, der;
+
+        Barrido(int[] xs, int[] ys, int n, boolean cerrado) {
+            this.cerrado = cerrado;
+            this.ultimoLadoOriginal = n - 2;
+            px = new int[n];
+            py = new int[n];
+            int[] original = new int[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (k > 0 && xs[i] == px[k - 1] && ys[i] == py[k - 1]) continue;
+                px[k] = xs[i];
+                py[k] = ys[i];
+                original[k] = i;
+                k++;
+            }
+            int distintos = k;
+            // En un polígono cerrado, repetir el primer vértice al final no añade nada
+            while (cerrado && k > 1 && px[k - 1] == px[0] && py[k - 1] == py[0]) {
+                k--;
+            }
+            m = k;
+            // El lado no nulo sale del último de cada grupo de vértices repetidos
+            salida = new int[m];
+            for (int i = 0; i < m; i++) {
+                salida[i] = (i + 1 < distintos ? original[i + 1] : n) - 1;
+            }
+            numLados = cerrado ? m : Math.max(m - 1, 0);
+            izq = new int[numLados];
+            der = new int[numLados];
+            for (int i = 0; i < numLados; i++) {
+                int j = siguiente(i);
+                if (compararPuntos(i, j) <= 0) {
+                    izq[i] = i;
+                    der[i] = j;
+                } else {
+                    izq[i] = j;
+                    der[i] = i;
+                }
+            }
+        }
+
+        int[] ejecutar() {
+            // Hacen falta dos lados no consecutivos
+            if (numLados < 3) {
+                return null;
+            }
+            if (!cerrado) {
+                return ejecutarPolilinea();
+            }
+            // 1) Lados consecutivos: solo comparten un vértice, salvo que el
+            //    polígono "vuelva sobre sí mismo" en línea recta
+            for (int i = 0; i < m; i++) {
+                if (vuelveAtras(i)) {
+                    return resultado(anterior(i), i);
+                }
+            }
+            // 2) Barrido sobre los lados no consecutivos
+            int[] par = barrer(0, numLados);
+            return par != null ? resultado(par[0], par[1]) : null;
+        }
+
+        /**
+         * En la polilínea solo cuentan los cruces propios: el barrido sigue
+         * adelante tras un contacto que no lo es (vértice sobre otro lado,
+         * lados alineados que se solapan, vuelta atrás sobre el lado anterior).
+         */
+        private int[] ejecutarPolilinea() {
+            int[] par;
+            if (sonPrimeroYUltimo(0, numLados - 1)) {
+                // Esa pareja no se compara: se barre sin el último lado y luego
+                // sin el primero, ya que un cruce ignorado a mitad de barrido
+                // dejaría desordenados los lados activos
+                par = barrer(0, numLados - 1);
+                if (par == null) {
+                    par = barrer(1, numLados);
+                }
+            } else {
+                par = barrer(0, numLados);
+            }
+            return par != null ? resultado(par[0], par[1]) : null;
+        }
+
+        // En el vértice i, el lado siguiente vuelve en línea recta sobre el anterior
+        private boolean vuelveAtras(int i) {
+            int a = anterior(i), b = siguiente(i);
+            return orientacion(px[a], py[a], px[i], py[i], px[b], py[b]) == 0
+                && producto(a, i, b) > 0;
+        }
+
+        /**
+         * Barrido de Shamos–Hoey sobre los lados desde..hasta-1.
+         *
+         * @return {s, t} con el primer par de lados que cuentan según
+         *         {@link #cuenta} (índices compactos), o null si no hay ninguno
+         */
+        private int[] barrer(int desde, int hasta) {
+            // Los índices se encajonan una sola vez para no reservar memoria al comparar
+            int total = hasta - desde;
+            Integer[] lados = new Integer[total];
+            for (int i = 0; i < total; i++) {
+                lados[i] = desde + i;
+            }
+            Integer[] porIzq = lados.clone();
+            Integer[] porDer = lados.clone();
+            Arrays.sort(porIzq, (a, b) -> compararPuntos(izq[a], izq[b]));
+            Arrays.sort(porDer, (a, b) -> compararPuntos(der[a], der[b]));
+
+            TreeSet<Integer> activos = new TreeSet<>(new OrdenVertical());
+            int ii = 0, id = 0;
+            while (id < total) {
+                // En un mismo punto, en el polígono cerrado las inserciones van
+                // antes que las bajas: así un lado que empieza donde otro termina
+                // llega a compararse con él. En la polilínea ese contacto no
+                // cuenta y van antes las bajas, para que los lados activos
+                // atraviesen todos la línea de barrido justo después del punto
+                boolean insertar = false;
+                if (ii < total) {
+                    int orden = compararPuntos(izq[porIzq[ii]], der[porDer[id]]);
+                    insertar = cerrado ? orden <= 0 : orden < 0;
+                }
+                if (insertar) {
+                    Integer s = porIzq[ii++];
+                    activos.add(s);
+                    Integer debajo = activos.lower(s);
+                    if (debajo != null && cuenta(s, debajo)) return new int[] { s, debajo };
+                    Integer encima = activos.higher(s);
+                    if (encima != null && cuenta(s, encima)) return new int[] { s, encima };
+                } else {
+                    Integer s = porDer[id++];
+                    Integer debajo = activos.lower(s);
+                    Integer encima = activos.higher(s);
+                    activos.remove(s);
+                    if (debajo != null && encima != null && cuenta(debajo, encima)) {
+                        return new int[] { debajo, encima };
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Orden de abajo arriba de dos lados activos, evaluado en el extremo
+         * izquierdo del que empieza más tarde (ahí los dos cortan la línea de
+         * barrido). Es coherente mientras los lados activos no se crucen, que
+         * es justo lo que se comprueba antes de seguir avanzando. Tocarse no
+         * lo estropea: dos lados que no se cruzan solo se encuentran en un
+         * extremo de uno de ellos, y los alineados que se solapan ocupan el
+         * mismo sitio y se desempatan siempre igual.
+         */
+        private final class OrdenVertical implements Comparator<Integer> {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int sa = a, sb = b;
+                if (sa == sb) return 0;
+                if (compararPuntos(izq[sa], izq[sb]) < 0) {
+                    return -compararCon(sb, sa);
+                }
+                return compararCon(sa, sb);
+            }
+
+            // s empieza en o después de t: posición de s respecto a t
+            private int compararCon(int s, int t) {
+                int tl = izq[t], tr = der[t];
+                int o = orientacion(px[tl], py[tl], px[tr], py[tr], px[izq[s]], py[izq[s]]);
+                if (o == 0) {
+                    o = orientacion(px[tl], py[tl], px[tr], py[tr], px[der[s]], py[der[s]]);
+                }
+                // Alineados: desempate fijo por índice
+                return o != 0 ? o : Integer.compare(s, t);
+            }
+        }
+
+        /**
+         * Indica si el barrido debe parar en el par s, t: en el polígono
+         * cerrado, cualquier contacto; en la polilínea, un cruce propio que
+         * no sea entre el primer lado y el último.
+         */
+        private boolean cuenta(int s, int t) {
+            return cerrado ? seTocan(s, t) : !sonPrimeroYUltimo(s, t) && crucePropio(s, t);
+        }
+
+        /**
+         * Indica si dos lados no consecutivos tienen algún punto en común.
+         */
+        private boolean seTocan(int s, int t) {
+            if (siguiente(s) == t || siguiente(t) == s) {
+                return false;
+            }
+            int a = s, b = siguiente(s), c = t, d = siguiente(t);
+            int o1 = orientacion(px[a], py[a], px[b], py[b], px[c], py[c]);
+            int o2 = orientacion(px[a], py[a], px[b], py[b], px[d], py[d]);
+            int o3 = orientacion(px[c], py[c], px[d], py[d], px[a], py[a]);
+            int o4 = orientacion(px[c], py[c], px[d], py[d], px[b], py[b]);
+            if (o1 * o2 < 0 && o3 * o4 < 0) return true;
+            return (o1 == 0 && enRango(c, a, b))
+                || (o2 == 0 && enRango(d, a, b))
+                || (o3 == 0 && enRango(a, c, d))
+                || (o4 == 0 && enRango(b, c, d));
+        }
+
+        /**
+         * Indica si los lados s y t se cortan en un punto interior de ambos.
+         */
+        private boolean crucePropio(int s, int t) {
+            int a = s, b = siguiente(s), c = t, d = siguiente(t);
+            return orientacion(px[a], py[a], px[b], py[b], px[c], py[c])
+                 * orientacion(px[a], py[a], px[b], py[b], px[d], py[d]) < 0
+                && orientacion(px[c], py[c], px[d], py[d], px[a], py[a])
+                 * orientacion(px[c], py[c], px[d], py[d], px[b], py[b]) < 0;
+        }
+
+        private boolean sonPrimeroYUltimo(int s, int t) {
+            int a = Math.min(salida[s], salida[t]);
+            int b = Math.max(salida[s], salida[t]);
+            return a == 0 && b == ultimoLadoOriginal;
+        }
+
+        // p alineado con a-b: ¿está dentro de la caja del segmento?
+        private boolean enRango(int p, int a, int b) {
+            return Math.min(px[a], px[b]) <= px[p] && px[p] <= Math.max(px[a], px[b])
+                && Math.min(py[a], py[b]) <= py[p] && py[p] <= Math.max(py[a], py[b]);
+        }
+
+        // Signo del producto escalar (a - v)·(b - v)
+        private int producto(int a, int v, int b) {
+            long dx1 = (long) px[a] - px[v], dy1 = (long) py[a] - py[v];
+            long dx2 = (long) px[b] - px[v], dy2 = (long) py[b] - py[v];
+            // dx1*dx2 + dy1*dy2 > 0  <=>  dx1*dx2 > -(dy1*dy2)
+            return compararProductos(dx1, dx2, -dy1, dy2);
+        }
+
+        private int compararPuntos(int i, int j) {
+            if (px[i] != px[j]) return px[i] < px[j] ? -1 : 1;
+            return Integer.compare(py[i], py[j]);
+        }
+
+        private int siguiente(int i) {
+            return i + 1 == m ? 0 : i + 1;
+        }
+
+        private int anterior(int i) {
+            return i == 0 ? m - 1 : i - 1;
+        }
+
+        private int[] resultado(int s, int t) {
+            int a = salida[s];
+            int b = salida[t];
+            return new int[] { Math.min(a, b), Math.max(a, b) };
+        }
+    }
+}
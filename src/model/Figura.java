@@ -1,14 +1,22 @@
 package model;
 
 import java.awt.Graphics2D;
+import java.io.IOException;
 
 /**
  * Interfaz base para todas las figuras dibujables.
  * Define al menos:
  *  - dibujar(Graphics2D g): para pintarla en pantalla
  *  - toSVG(): para generar la cadena SVG correspondiente
+ *  - escribirSVG(out): lo mismo, escrito directamente en un Appendable
+ *  - escribirGeometriaSVG(out) y getRgb...SVG(): la etiqueta sin colores y
+ *    sus colores por separado, para la exportación minificada
+ *  - getLimites(): caja envolvente, para recortar el pintado e indexar
  */
 public interface Figura {
+    /** Valor de getRgbTrazoSVG/getRgbRellenoSVG cuando no se pinta (SVG "none"). */
+    int SIN_COLOR = -1;
+
     /**
      * Dibuja esta figura en el contexto Graphics2D proporcionado.
      * 
@@ -22,4 +30,43 @@ public interface Figura {
      * @return cadena con la etiqueta SVG (por ejemplo: "<line ... />")
      */
     String toSVG();
+
+    /**
+     * Escribe la etiqueta SVG de esta figura en out, sin salto de línea.
+     * Es lo que usa la exportación para no guardar todo el documento en memoria.
+     *
+     * @param out destino (por ejemplo, un Writer con búfer)
+     * @throws IOException si falla la escritura
+     */
+    default void escribirSVG(Appendable out) throws IOException {
+        out.append(toSVG());
+    }
+
+    /**
+     * Escribe la etiqueta SVG solo con la geometría, sin stroke ni fill
+     * (los pone el grupo &lt;g&gt; que la contiene).
+     *
+     * @param out destino
+     * @throws IOException si falla la escritura
+     */
+    void escribirGeometriaSVG(Appendable out) throws IOException;
+
+    /**
+     * Color del contorno en SVG como 0xRRGGBB, o SIN_COLOR si no tiene.
+     */
+    int getRgbTrazoSVG();
+
+    /**
+     * Color de relleno en SVG como 0xRRGGBB, o SIN_COLOR si no tiene.
+     */
+    int getRgbRellenoSVG();
+
+    /**
+     * Devuelve la caja envolvente de la figura (trazo incluido).
+     * Las figuras son inmutables: se calcula al construirlas y se devuelve
+     * siempre la misma instancia, sin reservar memoria.
+     *
+     * @return caja envolvente en coordenadas del lienzo
+     */
+    Limites getLimites();
 }
@@ -0,0 +1,121 @@
+package model;
+
+import java.awt.Color;
+import java.io.IOException;
+
+/**
+ * Utilidades para que las figuras escriban su SVG sin String.format.
+ *
+ * Los enteros se escriben dígito a dígito si el destino es un BufferSVG, y
+ * el texto "rgb(r,g,b)" de cada color se guarda en una pequeña caché, así
+ * que escribir una figura en un BufferSVG no crea ningún objeto.
+ */
+public final class FormatoSVG {
+    private static final int TAMANO_CACHE = 1024; // potencia de 2
+    // Caché directa por RGB; una entrada se sustituye entera, así que leerla
+    // sin sincronizar es seguro (sus campos son final)
+    private static final EntradaColor[] CACHE = new EntradaColor[TAMANO_CACHE];
+    private static final EntradaColor[] CACHE_HEX = new EntradaColor[TAMANO_CACHE];
+    private static final char[] DIGITOS_HEX = "0123456789abcdef".toCharArray();
+
+    private FormatoSVG() {
+    }
+
+    /**
+     * Texto "rgb(r,g,b)" del color (se ignora la transparencia).
+     */
+    public static String rgb(Color c) {
+        int rgb = c.getRGB() & 0xFFFFFF;
+        int pos = (rgb ^ (rgb >>> 10) ^ (rgb >>> 20)) & (TAMANO_CACHE - 1);
+        EntradaColor e = CACHE[pos];
+        if (e == null || e.rgb != rgb) {
+            e = new EntradaColor(rgb, "rgb(" + c.getRed() + "," + c.getGreen() + "," + c.getBlue() + ")");
+            CACHE[pos] = e;
+        }
+        return e.texto;
+    }
+
+    /**
+     * Color en hexadecimal para SVG: "#rgb" si se puede abreviar, si no
+     * "#rrggbb"; "none" para Figura.SIN_COLOR.
+     */
+    public static String hex(int rgb) {
+        if (rgb == Figura.SIN_COLOR) {
+            return "none";
+        }
+        rgb &= 0xFFFFFF;
+        int pos = (rgb ^ (rgb >>> 10) ^ (rgb >>> 20)) & (TAMANO_CACHE - 1);
+        EntradaColor e = CACHE_HEX[pos];
+        if (e == null || e.rgb != rgb) {
+            e = new EntradaColor(rgb, textoHex(rgb));
+            CACHE_HEX[pos] = e;
+        }
+        return e.texto;
+    }
+
+    private static String textoHex(int rgb) {
+        char[] c = new char[7];
+        c[0] = '#';
+        for (int i = 0; i < 6; i++) {
+            c[1 + i] = DIGITOS_HEX[(rgb >>> (20 - 4 * i)) & 0xF];
+        }
+        if (c[1] == c[2] && c[3] == c[4] && c[5] == c[6]) {
+            return new String(new char[] { '#', c[1], c[3], c[5] });
+        }
+        return new String(c);
+    }
+
+    /**
+     * Añade el entero en decimal.
+     */
+    public static void entero(Appendable out, int v) throws IOException {
+        if (out instanceof BufferSVG) {
+            ((BufferSVG) out).append(v);
+        } else {
+            out.append(Integer.toString(v));
+        }
+    }
+
+    /**
+     * Añade la lista "x1,y1 x2,y2 ... xn,yn" del atributo points.
+     */
+    public static void puntos(Appendable out, int[] xs, int[] ys, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (i > 0) out.append(' ');
+            entero(out, xs[i]);
+            out.append(',');
+            entero(out, ys[i]);
+        }
+    }
+
+    /**
+     * Texto del atributo fill: el color si hay relleno, "none" si no.
+     */
+    public static String relleno(Color colorRelleno, boolean relleno) {
+        return relleno ? rgb(colorRelleno) : "none";
+    }
+
+    /**
+     * toSVG() a partir de escribirSVG(): la etiqueta de la figura como String.
+     */
+    public static String aTexto(Figura f) {
+        BufferSVG b = new BufferSVG(128);
+        try {
+            f.escribirSVG(b);
+        } catch (IOException ex) {
+            // BufferSVG no lanza IOException
+            throw new IllegalStateException(ex);
+        }
+        return b.toString();
+    }
+
+    private static final class EntradaColor {
+        final int rgb;
+        final String texto;
+
+        EntradaColor(int rgb, String texto) {
+            this.rgb = rgb;
+            this.texto = texto;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package model;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial de rejilla uniforme sobre las figuras de un LienzoModel.
+ *
+ * Cada figura se identifica por su posición en la lista del modelo (su orden Z)
+ * y se apunta en todas las celdas que toca su caja envolvente. Las figuras que
+ * ocupan demasiadas celdas van a una lista aparte que se recorre siempre.
+ * Las consultas devuelven los índices en orden Z ascendente (de la más antigua
+ * a la más reciente), que es el orden de pintado.
+ *
+ * Solo admite añadir al final y vaciar, igual que LienzoModel. No es seguro
+ * modificarlo mientras otro hilo consulta; varias consultas simultáneas sí lo son.
+ */
+public class IndiceEspacial {
+    private static final int TAMANO_CELDA = 128;
+    // Por encima de este número de celdas la figura va a la lista de "grandes"
+    private static final int MAX_CELDAS_POR_FIGURA = 64;
+
+    private final Map<Long, ListaEnteros> celdas = new HashMap<>();
+    private final ListaEnteros grandes = new ListaEnteros();
+
+    // Caja envolvente de cada figura (inclusiva), por índice
+    private int[] minX = new int[64];
+    private int[] minY = new int[64];
+    private int[] maxX = new int[64];
+    private int[] maxY = new int[64];
+    private int n = 0;
+
+    /**
+     * Añade la figura con el siguiente índice (debe coincidir con tamano()).
+     *
+     * @param limites caja envolvente de la figura
+     */
+    public void insertar(int indice, Limites limites) {
+        if (indice != n) {
+            throw new IllegalArgumentException("Se esperaba el índice " + n + " y se recibió " + indice);
+        }
+        if (n == minX.length) {
+            int cap = n * 2;
+            minX = Arrays.copyOf(minX, cap);
+            minY = Arrays.copyOf(minY, cap);
+            maxX = Arrays.copyOf(maxX, cap);
+            maxY = Arrays.copyOf(maxY, cap);
+        }
+        int x0 = limites.getX();
+        int y0 = limites.getY();
+        int x1 = limites.getX() + Math.max(limites.getAncho(), 1) - 1;
+        int y1 = limites.getY() + Math.max(limites.getAlto(), 1) - 1;
+        minX[n] = x0;
+        minY[n] = y0;
+        maxX[n] = x1;
+        maxY[n] = y1;
+        n++;
+
+        int cx0 = celda(x0), cy0 = celda(y0), cx1 = celda(x1), cy1 = celda(y1);
+        long numCeldas = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        if (numCeldas > MAX_CELDAS_POR_FIGURA) {
+            grandes.agregar(indice);
+            return;
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                celdas.computeIfAbsent(clave(cx, cy), k -> new ListaEnteros()).agregar(indice);
+            }
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        celdas.clear();
+        grandes.clear();
+        n = 0;
+    }
+
+    public int tamano() {
+        return n;
+    }
+
+    /**
+     * Índices de las figuras cuya caja envolvente corta el rectángulo dado,
+     * en orden Z ascendente.
+     */
+    public int[] consultar(Rectangle region) {
+        if (region.width <= 0 || region.height <= 0 || n == 0) {
+            return new int[0];
+        }
+        int qx0 = region.x;
+        int qy0 = region.y;
+        int qx1 = region.x + region.width - 1;
+        int qy1 = region.y + region.height - 1;
+        int cx0 = celda(qx0), cy0 = celda(qy0), cx1 = celda(qx1), cy1 = celda(qy1);
+
+        ListaEnteros resultado = new ListaEnteros();
+        long numCeldas = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        if (numCeldas > n) {
+            // Región enorme respecto al número de figuras: es más barato recorrerlas todas
+            for (int i = 0; i < n; i++) {
+                if (corta(i, qx0, qy0, qx1, qy1)) {
+                    resultado.agregar(i);
+                }
+            }
+            return resultado.aArray();
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                ListaEnteros lista = celdas.get(clave(cx, cy));
+                if (lista == null) continue;
+                for (int k = 0; k < lista.tamano; k++) {
+                    int i = lista.datos[k];
+                    // Cada par (figura, consulta) se acepta solo en la primera celda
+                    // que comparten, así no hay duplicados sin usar un conjunto
+                    if (cx == Math.max(cx0, celda(minX[i]))
+                            && cy == Math.max(cy0, celda(minY[i]))
+                            && corta(i, qx0, qy0, qx1, qy1)) {
+                        resultado.agregar(i);
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < grandes.tamano; k++) {
+            int i = grandes.datos[k];
+            if (corta(i, qx0, qy0, qx1, qy1)) {
+                resultado.agregar(i);
+            }
+        }
+        int[] indices = resultado.aArray();
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Índices de las figuras cuya caja envolvente contiene el punto, en orden Z ascendente.
+     */
+    public int[] consultar(Point p) {
+        return consultar(new Rectangle(p.x, p.y, 1, 1));
+    }
+
+    /**
+     * Convierte un array de índices en la lista de figuras correspondiente.
+     */
+    static List<Figura> aFiguras(int[] indices, List<Figura> figuras) {
+        Figura[] resultado = new Figura[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            resultado[k] = figuras.get(indices[k]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(resultado));
+    }
+
+    private boolean corta(int i, int qx0, int qy0, int qx1, int qy1) {
+        return minX[i] <= qx1 && maxX[i] >= qx0 && minY[i] <= qy1 && maxY[i] >= qy0;
+    }
+
+    private static int celda(int coordenada) {
+        return Math.floorDiv(coordenada, TAMANO_CELDA);
+    }
+
+    private static long clave(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Lista de int que crece sin encajonar (boxing).
+     */
+    private static final class ListaEnteros {
+        int[] datos = new int[4];
+        int tamano = 0;
+
+        void agregar(int v) {
+            if (tamano == datos.length) {
+                datos = Arrays.copyOf(datos, tamano * 2);
+            }
+            datos[tamano++] = v;
+        }
+
+        void clear() {
+            tamano = 0;
+        }
+
+        int[] aArray() {
+            return Arrays.copyOf(datos, tamano);
+        }
+    }
+}
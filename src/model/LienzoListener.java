@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Recibe los cambios de un LienzoModel (por ejemplo, el lienzo para
+ * actualizar su capa de figuras ya pintadas). Se notifica en el mismo hilo
+ * que modifica el modelo, normalmente el EDT.
+ */
+public interface LienzoListener {
+    /**
+     * Se ha añadido una figura al final de la lista.
+     */
+    void figuraAgregada(Figura f);
+
+    /**
+     * Se han eliminado todas las figuras.
+     */
+    void lienzoVaciado();
+}
@@ -1,25 +1,95 @@
 package model;
 
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 
 /**
  * LienzoModel actúa como “modelo” en la BD: es simplemente una lista de Figuras.
+ * Junto a la lista mantiene un índice espacial para responder rápido a
+ * “qué figuras hay en este punto/rectángulo” sin recorrerlas todas.
+ *
+ * Las figuras se guardan en un AlmacenFiguras: por defecto una lista de
+ * objetos (AlmacenLista); para dibujos de millones de figuras se puede usar
+ * AlmacenColumnar, que ocupa mucha menos memoria.
  */
 public class LienzoModel {
-    // Lista interna con las figuras dibujadas en el orden en que se agregan
+    // Figuras dibujadas en el orden en que se agregan
+    private final AlmacenFiguras almacen;
+    // Vista de solo lectura del almacén como List
     private final List<Figura> figuras;
+    // Índice espacial: cada figura se identifica por su posición en el almacén
+    private final IndiceEspacial indice;
+    private final List<LienzoListener> listeners = new ArrayList<>();
 
     public LienzoModel() {
-        this.figuras = new ArrayList<>();
+        this(new AlmacenLista());
+    }
+
+    /**
+     * @param almacen dónde guardar las figuras (vacío)
+     */
+    public LienzoModel(AlmacenFiguras almacen) {
+        this.almacen = almacen;
+        this.figuras = new VistaAlmacen(almacen);
+        this.indice = new IndiceEspacial();
     }
 
     /**
      * Devuelve una vista inmutable de la lista de figuras; la Vista la usará para pintar.
      */
     public List<Figura> getFiguras() {
-        return Collections.unmodifiableList(figuras);
+        return figuras;
+    }
+
+    /**
+     * Copia inmutable de la lista actual de figuras. Como las figuras también
+     * son inmutables, se puede recorrer desde otro hilo (guardar, exportar...)
+     * mientras el usuario sigue dibujando.
+     */
+    public List<Figura> getInstantanea() {
+        return almacen.getInstantanea();
+    }
+
+    /**
+     * Figuras cuya caja envolvente corta la región dada, en orden de pintado
+     * (de la primera agregada a la última).
+     */
+    public List<Figura> getFigurasEn(Rectangle region) {
+        return IndiceEspacial.aFiguras(indice.consultar(region), figuras);
+    }
+
+    /**
+     * Pinta en g, en orden, las figuras cuya caja envolvente corta la región.
+     * Hace lo mismo que recorrer getFigurasEn(region) llamando a dibujar(),
+     * pero deja que el almacén pinte sin crear las Figuras.
+     */
+    public void dibujarEn(Graphics2D g, Rectangle region) {
+        for (int i : indice.consultar(region)) {
+            almacen.dibujar(i, g);
+        }
+    }
+
+    /**
+     * Como dibujarEn, pero en dos pasos: consulta ahora el índice y devuelve
+     * un pintor que se puede usar después desde otro hilo. Pinta las figuras
+     * que había al llamar a este método, aunque luego se añadan otras o se
+     * vacíe el lienzo. Debe llamarse desde el hilo que modifica el modelo.
+     */
+    public Consumer<Graphics2D> prepararDibujoEn(Rectangle region) {
+        return almacen.pintorDe(indice.consultar(region));
+    }
+
+    /**
+     * Figuras cuya caja envolvente contiene el punto, en orden de pintado.
+     */
+    public List<Figura> getFigurasEn(Point p) {
+        return IndiceEspacial.aFiguras(indice.consultar(p), figuras);
     }
 
     /**
@@ -28,7 +98,11 @@ public class LienzoModel {
      */
     public void agregarFigura(Figura f) {
         if (f != null) {
-            figuras.add(f);
+            almacen.agregar(f);
+            indice.insertar(almacen.tamano() - 1, f.getLimites());
+            for (LienzoListener l : listeners) {
+                l.figuraAgregada(f);
+            }
         }
     }
 
@@ -36,13 +110,46 @@ public class LienzoModel {
      * Limpia todas las figuras del lienzo (vacía la lista).
      */
     public void clear() {
-        figuras.clear();
+        almacen.clear();
+        indice.clear();
+        for (LienzoListener l : listeners) {
+            l.lienzoVaciado();
+        }
+    }
+
+    public void addLienzoListener(LienzoListener l) {
+        listeners.add(l);
+    }
+
+    public void removeLienzoListener(LienzoListener l) {
+        listeners.remove(l);
     }
 
     /**
      * Número de figuras actuales (útil para llevar orden, si hiciera falta).
      */
     public int getCantidadFiguras() {
-        return figuras.size();
+        return almacen.tamano();
+    }
+
+    /**
+     * List de solo lectura que lee directamente del almacén (refleja los cambios).
+     */
+    private static final class VistaAlmacen extends AbstractList<Figura> implements RandomAccess {
+        private final AlmacenFiguras almacen;
+
+        VistaAlmacen(AlmacenFiguras almacen) {
+            this.almacen = almacen;
+        }
+
+        @Override
+        public Figura get(int i) {
+            return almacen.get(i);
+        }
+
+        @Override
+        public int size() {
+            return almacen.tamano();
+        }
     }
 }
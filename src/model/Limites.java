@@ -0,0 +1,103 @@
+package model;
+
+import java.awt.Rectangle;
+
+/**
+ * Caja envolvente alineada con los ejes, inmutable, en píxeles del lienzo.
+ * Cubre todo lo que pinta la figura, trazo incluido; cada figura la calcula
+ * una sola vez al construirse, así que consultarla no reserva memoria.
+ */
+public final class Limites {
+    /** Margen que se añade a la geometría para cubrir el trazo (1 px) y el redondeo. */
+    public static final int MARGEN_TRAZO = 1;
+
+    /** Caja vacía: no corta ni contiene nada. */
+    public static final Limites VACIO = new Limites(0, 0, 0, 0);
+
+    private final int x, y, ancho, alto;
+
+    private Limites(int x, int y, int ancho, int alto) {
+        this.x = x;
+        this.y = y;
+        this.ancho = ancho;
+        this.alto = alto;
+    }
+
+    /**
+     * Caja que contiene los píxeles de minX..maxX y minY..maxY (ambos inclusive)
+     * ampliada con MARGEN_TRAZO por cada lado.
+     */
+    public static Limites deExtremos(int minX, int minY, int maxX, int maxY) {
+        return new Limites(
+            minX - MARGEN_TRAZO, minY - MARGEN_TRAZO,
+            maxX - minX + 1 + 2 * MARGEN_TRAZO, maxY - minY + 1 + 2 * MARGEN_TRAZO
+        );
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getAncho() { return ancho; }
+    public int getAlto() { return alto; }
+    /** Última columna cubierta (inclusive). */
+    public int getMaxX() { return x + ancho - 1; }
+    /** Última fila cubierta (inclusive). */
+    public int getMaxY() { return y + alto - 1; }
+
+    public boolean isVacio() {
+        return ancho <= 0 || alto <= 0;
+    }
+
+    /**
+     * Indica si la caja corta el rectángulo (x, y, ancho, alto).
+     */
+    public boolean intersecta(int rx, int ry, int rAncho, int rAlto) {
+        return !isVacio() && rAncho > 0 && rAlto > 0
+            && x < rx + rAncho && rx < x + ancho
+            && y < ry + rAlto && ry < y + alto;
+    }
+
+    public boolean intersecta(Rectangle r) {
+        return intersecta(r.x, r.y, r.width, r.height);
+    }
+
+    public boolean contiene(int px, int py) {
+        return px >= x && px < x + ancho && py >= y && py < y + alto;
+    }
+
+    /**
+     * Caja mínima que contiene a esta y a otra.
+     */
+    public Limites union(Limites otra) {
+        if (otra.isVacio()) return this;
+        if (isVacio()) return otra;
+        int x0 = Math.min(x, otra.x);
+        int y0 = Math.min(y, otra.y);
+        int x1 = Math.max(x + ancho, otra.x + otra.ancho);
+        int y1 = Math.max(y + alto, otra.y + otra.alto);
+        return new Limites(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Copia como Rectangle (mutable) para APIs de AWT/Swing como repaint(Rectangle).
+     */
+    public Rectangle aRectangle() {
+        return new Rectangle(x, y, ancho, alto);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Limites)) return false;
+        Limites l = (Limites) o;
+        return x == l.x && y == l.y && ancho == l.ancho && alto == l.alto;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((x * 31 + y) * 31 + ancho) * 31 + alto;
+    }
+
+    @Override
+    public String toString() {
+        return "Limites[x=" + x + ", y=" + y + ", ancho=" + ancho + ", alto=" + alto + "]";
+    }
+}
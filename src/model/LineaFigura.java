@@ -2,13 +2,15 @@ package model;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.io.IOException;
 
 /**
  * Representa una línea entre (x1,y1) y (x2,y2) con un color de trazo.
  */
 public class LineaFigura implements Figura {
-    private int x1, y1, x2, y2;
-    private Color colorTrazo;
+    private final int x1, y1, x2, y2;
+    private final Color colorTrazo;
+    private final Limites limites;
 
     /**
      * @param x1 coordenada x del primer extremo
@@ -23,25 +25,63 @@ public class LineaFigura implements Figura {
         this.x2 = x2;
         this.y2 = y2;
         this.colorTrazo = colorTrazo;
+        this.limites = Limites.deExtremos(
+            Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)
+        );
     }
 
     @Override
     public void dibujar(Graphics2D g) {
+        dibujar(g, x1, y1, x2, y2, colorTrazo);
+    }
+
+    /**
+     * Pinta una línea sin necesidad de crear la figura (lo usa AlmacenColumnar).
+     */
+    static void dibujar(Graphics2D g, int x1, int y1, int x2, int y2, Color colorTrazo) {
         g.setColor(colorTrazo);
         g.drawLine(x1, y1, x2, y2);
     }
 
     @Override
     public String toSVG() {
-        String rgb = String.format("rgb(%d,%d,%d)", 
-                colorTrazo.getRed(), 
-                colorTrazo.getGreen(), 
-                colorTrazo.getBlue());
+        return FormatoSVG.aTexto(this);
+    }
+
+    @Override
+    public void escribirSVG(Appendable out) throws IOException {
         // SVG: <line x1="..." y1="..." x2="..." y2="..." stroke="rgb(...)" stroke-width="1"/>
-        return String.format(
-            "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"%s\" stroke-width=\"1\" />",
-            x1, y1, x2, y2, rgb
-        );
+        abrirEtiquetaSVG(out);
+        out.append(" stroke=\"").append(FormatoSVG.rgb(colorTrazo))
+           .append("\" stroke-width=\"1\" />");
+    }
+
+    @Override
+    public void escribirGeometriaSVG(Appendable out) throws IOException {
+        abrirEtiquetaSVG(out);
+        out.append("/>");
+    }
+
+    @Override
+    public int getRgbTrazoSVG() { return colorTrazo.getRGB() & 0xFFFFFF; }
+    @Override
+    public int getRgbRellenoSVG() { return SIN_COLOR; }
+
+    private void abrirEtiquetaSVG(Appendable out) throws IOException {
+        out.append("<line x1=\"");
+        FormatoSVG.entero(out, x1);
+        out.append("\" y1=\"");
+        FormatoSVG.entero(out, y1);
+        out.append("\" x2=\"");
+        FormatoSVG.entero(out, x2);
+        out.append("\" y2=\"");
+        FormatoSVG.entero(out, y2);
+        out.append('"');
+    }
+
+    @Override
+    public Limites getLimites() {
+        return limites;
     }
 
     // Getters para persistencia:
@@ -3,21 +3,30 @@ package model;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Point;
-import java.awt.Polygon;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Polígono irregular definido por una lista de puntos (vértices) en orden.
- * El constructor recibe la lista ya validada.
+ * Polígono irregular definido por sus vértices en orden.
+ * El constructor recibe los vértices ya validados.
+ *
+ * Las coordenadas se guardan en dos arrays de int (xs, ys) que no cambian
+ * tras construir la figura; dibujar() los pasa tal cual a Graphics2D sin
+ * reservar memoria. Para leerlos desde fuera: getNumVertices(),
+ * getVerticeX(i) y getVerticeY(i).
  */
 public class PoligonoIrregularFigura implements Figura {
-    private List<Point> vertices;   // lista de puntos (x,y) ordenados
-    private Color colorTrazo;
-    private Color colorRelleno;
-    private boolean relleno;
+    private final int[] xs;   // coordenadas x de los vértices, en orden
+    private final int[] ys;   // coordenadas y de los vértices, en orden
+    private final Color colorTrazo;
+    private final Color colorRelleno;
+    private final boolean relleno;
+    private final Limites limites;
 
     /**
      * @param vertices lista de puntos; primera posición = primer vértice, etc.
+     *                 Se copia: la lista puede reutilizarse después.
      * @param colorTrazo color del contorno
      * @param colorRelleno color de relleno
      * @param relleno si true, se rellena; si false, solo contorno
@@ -25,54 +34,152 @@ public class PoligonoIrregularFigura implements Figura {
     public PoligonoIrregularFigura(List<Point> vertices,
                                    Color colorTrazo, Color colorRelleno, boolean relleno) {
         // Supone que 'vertices' ya no tiene vértices repetidos y no hay auto‐intersecciones
-        this.vertices = vertices;
+        int n = vertices.size();
+        this.xs = new int[n];
+        this.ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Point p = vertices.get(i);
+            xs[i] = p.x;
+            ys[i] = p.y;
+        }
         this.colorTrazo = colorTrazo;
         this.colorRelleno = colorRelleno;
         this.relleno = relleno;
+        this.limites = calcularLimites(xs, ys);
+    }
+
+    /**
+     * Construye el polígono a partir de dos arrays de coordenadas del mismo tamaño
+     * (por ejemplo, los decodificados de la BD). Los arrays se copian.
+     */
+    public PoligonoIrregularFigura(int[] xs, int[] ys,
+                                   Color colorTrazo, Color colorRelleno, boolean relleno) {
+        this(xs, ys, comprobarTamanos(xs, ys), colorTrazo, colorRelleno, relleno);
+    }
+
+    /**
+     * Como el anterior, pero usando solo los n primeros vértices de los arrays.
+     */
+    public PoligonoIrregularFigura(int[] xs, int[] ys, int n,
+                                   Color colorTrazo, Color colorRelleno, boolean relleno) {
+        if (n < 0 || n > xs.length || n > ys.length) {
+            throw new IllegalArgumentException(
+                "n=" + n + " fuera de rango (xs: " + xs.length + ", ys: " + ys.length + ")");
+        }
+        this.xs = Arrays.copyOf(xs, n);
+        this.ys = Arrays.copyOf(ys, n);
+        this.colorTrazo = colorTrazo;
+        this.colorRelleno = colorRelleno;
+        this.relleno = relleno;
+        this.limites = calcularLimites(this.xs, this.ys);
+    }
+
+    /**
+     * Construye el polígono quedándose con los arrays tal cual, sin copiarlos.
+     * Pensado para arrays recién creados que nadie más va a tocar (p. ej. los
+     * que devuelve CodificadorVertices.decodificar); quien llama no debe
+     * modificarlos después.
+     */
+    public static PoligonoIrregularFigura sinCopiar(int[] xs, int[] ys,
+                                                    Color colorTrazo, Color colorRelleno,
+                                                    boolean relleno) {
+        comprobarTamanos(xs, ys);
+        return new PoligonoIrregularFigura(colorTrazo, colorRelleno, relleno, xs, ys);
+    }
+
+    // Para sinCopiar(): orden de parámetros distinto para no chocar con el constructor público
+    private PoligonoIrregularFigura(Color colorTrazo, Color colorRelleno, boolean relleno,
+                                    int[] xs, int[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.colorTrazo = colorTrazo;
+        this.colorRelleno = colorRelleno;
+        this.relleno = relleno;
+        this.limites = calcularLimites(xs, ys);
+    }
+
+    private static int comprobarTamanos(int[] xs, int[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException(
+                "xs e ys deben tener el mismo tamaño (" + xs.length + " != " + ys.length + ")");
+        }
+        return xs.length;
+    }
+
+    private static Limites calcularLimites(int[] xs, int[] ys) {
+        if (xs.length == 0) {
+            return Limites.VACIO;
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return Limites.deExtremos(minX, minY, maxX, maxY);
     }
 
     @Override
     public void dibujar(Graphics2D g) {
-        int n = vertices.size();
-        int[] xs = new int[n];
-        int[] ys = new int[n];
-        for (int i = 0; i < n; i++) {
-            Point p = vertices.get(i);
-            xs[i] = p.x;
-            ys[i] = p.y;
-        }
-        Polygon poly = new Polygon(xs, ys, n);
+        dibujar(g, xs, ys, xs.length, colorTrazo, colorRelleno, relleno);
+    }
+
+    /**
+     * Pinta el polígono de los n primeros vértices de xs/ys sin necesidad de
+     * crear la figura (lo usa AlmacenColumnar).
+     */
+    static void dibujar(Graphics2D g, int[] xs, int[] ys, int n,
+                        Color colorTrazo, Color colorRelleno, boolean relleno) {
         if (relleno) {
             g.setColor(colorRelleno);
-            g.fillPolygon(poly);
+            g.fillPolygon(xs, ys, n);
         }
         g.setColor(colorTrazo);
-        g.drawPolygon(poly);
+        g.drawPolygon(xs, ys, n);
     }
 
     @Override
     public String toSVG() {
-        String strokeRGB = String.format("rgb(%d,%d,%d)",
-                colorTrazo.getRed(), colorTrazo.getGreen(), colorTrazo.getBlue());
-        String fillRGB = relleno
-                ? String.format("rgb(%d,%d,%d)",
-                        colorRelleno.getRed(), colorRelleno.getGreen(), colorRelleno.getBlue())
-                : "none";
-
-        StringBuilder puntosSB = new StringBuilder();
-        for (int i = 0; i < vertices.size(); i++) {
-            Point p = vertices.get(i);
-            puntosSB.append(p.x).append(",").append(p.y);
-            if (i < vertices.size() - 1) puntosSB.append(" ");
-        }
-        return String.format(
-            "<polygon points=\"%s\" stroke=\"%s\" fill=\"%s\" />",
-            puntosSB.toString(), strokeRGB, fillRGB
-        );
+        return FormatoSVG.aTexto(this);
+    }
+
+    @Override
+    public void escribirSVG(Appendable out) throws IOException {
+        // <polygon points="x1,y1 x2,y2 ... xn,yn" stroke="..." fill="..."/>
+        abrirEtiquetaSVG(out);
+        out.append(" stroke=\"").append(FormatoSVG.rgb(colorTrazo))
+           .append("\" fill=\"").append(FormatoSVG.relleno(colorRelleno, relleno))
+           .append("\" />");
+    }
+
+    @Override
+    public void escribirGeometriaSVG(Appendable out) throws IOException {
+        abrirEtiquetaSVG(out);
+        out.append("/>");
+    }
+
+    @Override
+    public int getRgbTrazoSVG() { return colorTrazo.getRGB() & 0xFFFFFF; }
+    @Override
+    public int getRgbRellenoSVG() { return relleno ? colorRelleno.getRGB() & 0xFFFFFF : SIN_COLOR; }
+
+    private void abrirEtiquetaSVG(Appendable out) throws IOException {
+        out.append("<polygon points=\"");
+        FormatoSVG.puntos(out, xs, ys, xs.length);
+        out.append('"');
+    }
+
+    @Override
+    public Limites getLimites() {
+        return limites;
     }
 
     // Getters (para persistencia)
-    public List<Point> getVertices() { return vertices; }
+    public int getNumVertices() { return xs.length; }
+    public int getVerticeX(int i) { return xs[i]; }
+    public int getVerticeY(int i) { return ys[i]; }
     public Color getColorTrazo() { return colorTrazo; }
     public Color getColorRelleno() { return colorRelleno; }
     public boolean isRelleno() { return relleno; }
@@ -2,20 +2,27 @@ package model;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
+import java.io.IOException;
 
 /**
  * Representa un polígono regular de n lados. 
  * El ánguloInicio (en radianes) define la rotación del primer vértice.
+ *
+ * Los vértices se calculan la primera vez que se necesitan y se guardan;
+ * pintado, SVG y prueba de punto usan los mismos arrays, así que el seno y
+ * coseno de cada vértice se calculan una sola vez por figura.
  */
 public class PoligonoRegularFigura implements Figura {
-    private int centroX, centroY;
-    private int radio;
-    private int nLados;
-    private double anguloInicio; // en radianes
-    private Color colorTrazo;
-    private Color colorRelleno;
-    private boolean relleno;
+    private final int centroX, centroY;
+    private final int radio;
+    private final int nLados;
+    private final double anguloInicio; // en radianes
+    private final Color colorTrazo;
+    private final Color colorRelleno;
+    private final boolean relleno;
+    private final Limites limites;
+    // Se calcula al primer uso; al ser sus campos final se puede publicar sin sincronizar
+    private Vertices vertices;
 
     /**
      * @param centroX coordenada x del centro
@@ -38,56 +45,90 @@ public class PoligonoRegularFigura implements Figura {
         this.colorTrazo = colorTrazo;
         this.colorRelleno = colorRelleno;
         this.relleno = relleno;
+        // Todos los vértices están en la circunferencia circunscrita
+        int r = Math.abs(radio);
+        this.limites = Limites.deExtremos(centroX - r, centroY - r, centroX + r, centroY + r);
     }
 
     @Override
     public void dibujar(Graphics2D g) {
-        // Calculamos los vértices en arrays de int para usar Polygon
-        int[] xs = new int[nLados];
-        int[] ys = new int[nLados];
-
-        double angInc = 2 * Math.PI / nLados; // incremento de ángulo entre vértices
+        dibujar(g, getVerticesCalculados(), nLados, colorTrazo, colorRelleno, relleno);
+    }
 
-        for (int i = 0; i < nLados; i++) {
-            double ang = anguloInicio + i * angInc;
-            xs[i] = centroX + (int) Math.round(radio * Math.cos(ang));
-            ys[i] = centroY + (int) Math.round(radio * Math.sin(ang));
-        }
+    /**
+     * Pinta un polígono regular sin necesidad de crear la figura (lo usa
+     * AlmacenColumnar). Los vértices se calculan en cada llamada.
+     */
+    static void dibujar(Graphics2D g, int centroX, int centroY, int radio, int nLados,
+                        double anguloInicio, Color colorTrazo, Color colorRelleno,
+                        boolean relleno) {
+        Vertices v = new Vertices(centroX, centroY, radio, nLados, anguloInicio);
+        dibujar(g, v, nLados, colorTrazo, colorRelleno, relleno);
+    }
 
-        Polygon poly = new Polygon(xs, ys, nLados);
+    private static void dibujar(Graphics2D g, Vertices v, int nLados,
+                                Color colorTrazo, Color colorRelleno, boolean relleno) {
         if (relleno) {
             g.setColor(colorRelleno);
-            g.fillPolygon(poly);
+            g.fillPolygon(v.xs, v.ys, nLados);
         }
         g.setColor(colorTrazo);
-        g.drawPolygon(poly);
+        g.drawPolygon(v.xs, v.ys, nLados);
     }
 
     @Override
     public String toSVG() {
-        String strokeRGB = String.format("rgb(%d,%d,%d)",
-                colorTrazo.getRed(), colorTrazo.getGreen(), colorTrazo.getBlue());
-        String fillRGB = relleno
-                ? String.format("rgb(%d,%d,%d)",
-                        colorRelleno.getRed(), colorRelleno.getGreen(), colorRelleno.getBlue())
-                : "none";
-
-        // Construir la lista "x1,y1 x2,y2 ... xn,yn"
-        StringBuilder puntosSB = new StringBuilder();
-        double angInc = 2 * Math.PI / nLados;
-        for (int i = 0; i < nLados; i++) {
-            double ang = anguloInicio + i * angInc;
-            int vx = centroX + (int) Math.round(radio * Math.cos(ang));
-            int vy = centroY + (int) Math.round(radio * Math.sin(ang));
-            puntosSB.append(vx).append(",").append(vy);
-            if (i < nLados - 1) puntosSB.append(" ");
-        }
+        return FormatoSVG.aTexto(this);
+    }
 
+    @Override
+    public void escribirSVG(Appendable out) throws IOException {
         // <polygon points="x1,y1 x2,y2 ... xn,yn" stroke="..." fill="..."/>
-        return String.format(
-            "<polygon points=\"%s\" stroke=\"%s\" fill=\"%s\" />",
-            puntosSB.toString(), strokeRGB, fillRGB
-        );
+        abrirEtiquetaSVG(out);
+        out.append(" stroke=\"").append(FormatoSVG.rgb(colorTrazo))
+           .append("\" fill=\"").append(FormatoSVG.relleno(colorRelleno, relleno))
+           .append("\" />");
+    }
+
+    @Override
+    public void escribirGeometriaSVG(Appendable out) throws IOException {
+        abrirEtiquetaSVG(out);
+        out.append("/>");
+    }
+
+    @Override
+    public int getRgbTrazoSVG() { return colorTrazo.getRGB() & 0xFFFFFF; }
+    @Override
+    public int getRgbRellenoSVG() { return relleno ? colorRelleno.getRGB() & 0xFFFFFF : SIN_COLOR; }
+
+    private void abrirEtiquetaSVG(Appendable out) throws IOException {
+        Vertices v = getVerticesCalculados();
+        out.append("<polygon points=\"");
+        FormatoSVG.puntos(out, v.xs, v.ys, nLados);
+        out.append('"');
+    }
+
+    /**
+     * Indica si el punto (px, py) cae dentro del polígono (regla par-impar).
+     */
+    public boolean contiene(int px, int py) {
+        if (!limites.contiene(px, py)) {
+            return false;
+        }
+        Vertices v = getVerticesCalculados();
+        boolean dentro = false;
+        for (int i = 0, j = nLados - 1; i < nLados; j = i++) {
+            if ((v.ys[i] > py) != (v.ys[j] > py)
+                    && px < (double) (v.xs[j] - v.xs[i]) * (py - v.ys[i]) / (v.ys[j] - v.ys[i]) + v.xs[i]) {
+                dentro = !dentro;
+            }
+        }
+        return dentro;
+    }
+
+    @Override
+    public Limites getLimites() {
+        return limites;
     }
 
     // Getters (para persistencia)
@@ -99,4 +140,38 @@ public class PoligonoRegularFigura implements Figura {
     public Color getColorTrazo() { return colorTrazo; }
     public Color getColorRelleno() { return colorRelleno; }
     public boolean isRelleno() { return relleno; }
+
+    private Vertices getVerticesCalculados() {
+        Vertices v = vertices;
+        if (v == null) {
+            v = new Vertices(centroX, centroY, radio, nLados, anguloInicio);
+            vertices = v;
+        }
+        return v;
+    }
+
+    /**
+     * Coordenadas enteras de los vértices, inmutables una vez construidas.
+     */
+    private static final class Vertices {
+        final int[] xs;
+        final int[] ys;
+
+        Vertices(int centroX, int centroY, int radio, int nLados, double anguloInicio) {
+            xs = new int[nLados];
+            ys = new int[nLados];
+            if (nLados <= 0) {
+                return;
+            }
+            // Siempre cos/sen del ángulo de cada vértice: otra forma de
+            // calcularlo (p. ej. girar una tabla) redondea distinto en los
+            // empates a .5 y movería un píxel vértices de dibujos ya guardados
+            double angInc = 2 * Math.PI / nLados; // incremento de ángulo entre vértices
+            for (int i = 0; i < nLados; i++) {
+                double ang = anguloInicio + i * angInc;
+                xs[i] = centroX + (int) Math.round(radio * Math.cos(ang));
+                ys[i] = centroY + (int) Math.round(radio * Math.sin(ang));
+            }
+        }
+    }
 }
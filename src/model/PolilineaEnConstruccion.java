@@ -0,0 +1,81 @@
+package model;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Vértices de un polígono irregular que el usuario está dibujando clic a clic.
+ *
+ * Las coordenadas se guardan en dos arrays de int que crecen al doble cuando
+ * se llenan, así que añadir un vértice es O(1) amortizado y no crea objetos.
+ * Cuando el usuario termina, aFigura() construye el PoligonoIrregularFigura
+ * definitivo.
+ *
+ * No es seguro para varios hilos; se usa solo desde el EDT.
+ */
+public class PolilineaEnConstruccion {
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int n = 0;
+
+    /**
+     * Añade un vértice al final.
+     */
+    public void agregar(int x, int y) {
+        if (n == xs.length) {
+            xs = Arrays.copyOf(xs, n * 2);
+            ys = Arrays.copyOf(ys, n * 2);
+        }
+        xs[n] = x;
+        ys[n] = y;
+        n++;
+    }
+
+    /**
+     * Descarta todos los vértices (conserva la memoria reservada).
+     */
+    public void clear() {
+        n = 0;
+    }
+
+    public int tamano() {
+        return n;
+    }
+
+    public boolean isVacia() {
+        return n == 0;
+    }
+
+    public int getX(int i) {
+        comprobarIndice(i);
+        return xs[i];
+    }
+
+    public int getY(int i) {
+        comprobarIndice(i);
+        return ys[i];
+    }
+
+    /**
+     * Indica si dos lados de la polilínea se cruzan, con la regla de siempre
+     * para aceptar un polígono irregular: sin contar el lado de cierre, y
+     * tocarse o solaparse no es cruzarse (ver DetectorIntersecciones).
+     */
+    public boolean hayAutoInterseccion() {
+        return DetectorIntersecciones.hayCruceEnPolilinea(xs, ys, n);
+    }
+
+    /**
+     * Construye el polígono con los vértices actuales (se copian, así que
+     * la polilínea puede vaciarse y reutilizarse después).
+     */
+    public PoligonoIrregularFigura aFigura(Color colorTrazo, Color colorRelleno, boolean relleno) {
+        return new PoligonoIrregularFigura(xs, ys, n, colorTrazo, colorRelleno, relleno);
+    }
+
+    private void comprobarIndice(int i) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fuera de 0.." + (n - 1));
+        }
+    }
+}
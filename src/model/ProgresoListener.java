@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Recibe el avance de una operación larga (guardar, cargar, exportar...).
+ * Se invoca desde el hilo que hace el trabajo, no desde el EDT.
+ */
+@FunctionalInterface
+public interface ProgresoListener {
+    /** Listener que ignora el progreso y nunca cancela. */
+    ProgresoListener NINGUNO = (procesadas, total) -> true;
+
+    /**
+     * Notifica que se han procesado 'procesadas' de 'total' figuras.
+     *
+     * @return false si la operación debe cancelarse
+     */
+    boolean avanzar(int procesadas, int total);
+}
@@ -2,13 +2,15 @@ package model;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.io.IOException;
 
 /**
  * Representa un punto simple. Se dibuja como un pequeño círculo relleno.
  */
 public class PuntoFigura implements Figura {
-    private int x, y;           // coordenadas del punto
-    private Color colorTrazo;   // color para pintar el punto (relleno)
+    private final int x, y;           // coordenadas del punto
+    private final Color colorTrazo;   // color para pintar el punto (relleno)
+    private final Limites limites;
 
     /**
      * Constructor básico.
@@ -20,10 +22,18 @@ public class PuntoFigura implements Figura {
         this.x = x;
         this.y = y;
         this.colorTrazo = colorTrazo;
+        this.limites = Limites.deExtremos(x - 3, y - 3, x + 3, y + 3);
     }
 
     @Override
     public void dibujar(Graphics2D g) {
+        dibujar(g, x, y, colorTrazo);
+    }
+
+    /**
+     * Pinta un punto sin necesidad de crear la figura (lo usa AlmacenColumnar).
+     */
+    static void dibujar(Graphics2D g, int x, int y, Color colorTrazo) {
         // Dibujamos un círculo pequeñito de radio 3 px (por ejemplo)
         int r = 3;
         g.setColor(colorTrazo);
@@ -33,16 +43,39 @@ public class PuntoFigura implements Figura {
 
     @Override
     public String toSVG() {
-        // Convertimos el Color a "rgb(r,g,b)"
-        String rgb = String.format("rgb(%d,%d,%d)", 
-                colorTrazo.getRed(), 
-                colorTrazo.getGreen(), 
-                colorTrazo.getBlue());
-        // Rayon pequeño (3 px). En SVG, <circle cx="..." cy="..." r="..." fill="..."/>
-        return String.format(
-            "<circle cx=\"%d\" cy=\"%d\" r=\"%d\" fill=\"%s\" />",
-            x, y, 3, rgb
-        );
+        return FormatoSVG.aTexto(this);
+    }
+
+    @Override
+    public void escribirSVG(Appendable out) throws IOException {
+        // Radio pequeño (3 px). En SVG, <circle cx="..." cy="..." r="..." fill="..."/>
+        abrirEtiquetaSVG(out);
+        out.append(" fill=\"").append(FormatoSVG.rgb(colorTrazo)).append("\" />");
+    }
+
+    @Override
+    public void escribirGeometriaSVG(Appendable out) throws IOException {
+        abrirEtiquetaSVG(out);
+        out.append("/>");
+    }
+
+    // El punto es un círculo relleno sin contorno
+    @Override
+    public int getRgbTrazoSVG() { return SIN_COLOR; }
+    @Override
+    public int getRgbRellenoSVG() { return colorTrazo.getRGB() & 0xFFFFFF; }
+
+    private void abrirEtiquetaSVG(Appendable out) throws IOException {
+        out.append("<circle cx=\"");
+        FormatoSVG.entero(out, x);
+        out.append("\" cy=\"");
+        FormatoSVG.entero(out, y);
+        out.append("\" r=\"3\"");
+    }
+
+    @Override
+    public Limites getLimites() {
+        return limites;
     }
 
     // Getters y setters (para persistencia)
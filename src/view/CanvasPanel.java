@@ -1,24 +1,125 @@
 package view;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import model.Figura;
+import model.LienzoListener;
+import model.Limites;
 import model.LienzoModel;
+import model.PolilineaEnConstruccion;
 
 /**
  * CanvasPanel es nuestro “lienzo” (vista).
- * Recibe un LienzoModel y, en paintComponent, invoca a cada figura allí guardada.
+ * Recibe un LienzoModel y, en paintComponent, invoca a cada figura allí guardada
+ * que toque la región de recorte (clip) del repintado.
+ *
+ * La vista se puede acercar/alejar y desplazar: las figuras están en
+ * coordenadas del lienzo y se pintan con la transformación
+ * pantalla = lienzo * escala + desplazamiento (ver getTransformacion()).
+ * La escala va por niveles fijos (FACTOR_ZOOM elevado al nivel) y el
+ * desplazamiento es siempre un número entero de píxeles.
+ *
+ * Las figuras ya confirmadas se pintan en teselas de TAMANO_TESELA x
+ * TAMANO_TESELA píxeles de pantalla por nivel de zoom, que se guardan en una
+ * caché LRU limitada en memoria (MAX_BYTES_TESELAS): al desplazar la vista
+ * solo se pintan las teselas que entran por primera vez, y al volver a un
+ * nivel de zoom se reutilizan las que sigan en la caché. Al añadir una
+ * figura solo se tocan las teselas que corta: las del nivel actual se
+ * actualizan pintándola encima y las de otros niveles se descartan.
+ * Las teselas que faltan (al abrir un dibujo, cambiar de zoom...) se pintan
+ * en un pool de hilos propio, sin que el EDT las espere: mientras tanto su
+ * hueco se queda con el color de fondo y cada una aparece en cuanto está
+ * lista.
+ *
+ * El polígono irregular en construcción va en otra capa transparente: cada
+ * clic pinta solo el lado nuevo, y al mover el ratón solo se repintan la
+ * banda elástica (último vértice → cursor) y el lado de cierre (cursor →
+ * primer vértice).
  *
  * Además muestra cualquier figura temporal que el controlador establezca.
  */
-public class CanvasPanel extends JPanel {
+public class CanvasPanel extends JPanel implements LienzoListener {
+    /** Lado de una tesela, en píxeles de pantalla. */
+    public static final int TAMANO_TESELA = 256;
+    // Java2D no rasteriza igual el contorno de un óvalo cuando el borde de la
+    // imagen lo recorta cerca: cada tesela se pinta con este margen alrededor
+    // y solo se copia su centro, así las juntas no se notan
+    private static final int MARGEN_TESELA = 8;
+    private static final int LADO_IMAGEN_TESELA = TAMANO_TESELA + 2 * MARGEN_TESELA;
+    /** Cada paso de la rueda multiplica o divide la escala por este factor. */
+    public static final double FACTOR_ZOOM = 1.25;
+    private static final int NIVEL_MIN = -12;   // ~x0,07
+    private static final int NIVEL_MAX = 12;    // ~x14,6
+    // Memoria máxima de la caché de teselas (cada una ocupa unos 290 KB)
+    private static final long MAX_BYTES_TESELAS = 32L << 20;
+    private static final long BYTES_POR_TESELA = 4L * LADO_IMAGEN_TESELA * LADO_IMAGEN_TESELA;
+    private static final int MAX_TESELAS = (int) (MAX_BYTES_TESELAS / BYTES_POR_TESELA);
+
     private LienzoModel modelo;       // referencia al modelo
     private Figura figuraTemporal;    // figura que se está dibujando “en proceso”
     private Color colorFondo = Color.WHITE;
 
+    // Vista: escala = FACTOR_ZOOM ^ nivelZoom, desplazamiento en píxeles
+    private int nivelZoom = 0;
+    private double escala = 1.0;
+    private int desplX = 0, desplY = 0;
+    // Hilos que pintan las teselas; propios para no competir con el
+    // ForkJoinPool común (p. ej. con la exportación a SVG)
+    private static final AtomicInteger contadorHilos = new AtomicInteger();
+    private static final ExecutorService PINTORES = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+            Thread t = new Thread(r, "teselas-" + contadorHilos.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    // Pintar en segundo plano las teselas que falten (ver pintarTeselasQueFaltan)
+    private boolean paralelo = true;
+
+    // Teselas ya pintadas, de la menos a la más recientemente usada
+    private final LinkedHashMap<Tesela, BufferedImage> teselas =
+        new LinkedHashMap<Tesela, BufferedImage>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Tesela, BufferedImage> mayor) {
+                // Nunca menos de las que caben en pantalla, o se repintarían en cada paint()
+                return size() > Math.max(MAX_TESELAS, teselasEnPantalla());
+            }
+        };
+    // Teselas que se están pintando en PINTORES. Si una deja de estar aquí
+    // (o la sustituye otra petición) su resultado se descarta al llegar; las
+    // que se quitan además se cancelan, y si aún no habían empezado ya no se pintan
+    private final Map<Tesela, CompletableFuture<BufferedImage>> pendientes = new HashMap<>();
+
+    // Polígono irregular en construcción (null si no hay ninguno)
+    private PolilineaEnConstruccion polilinea;
+    private Color colorPolilinea = Color.BLACK;
+    // Lados ya fijados de la polilínea, pintados sobre fondo transparente
+    private BufferedImage capaPolilinea;
+    // Lados ya pintados en capaPolilinea; -1 = hay que borrarla primero
+    private int ladosEnCapa = -1;
+    private boolean hayCursor = false;
+    private int cursorX, cursorY;
+
     public CanvasPanel() {
         // Tamaño preferido del lienzo
         setPreferredSize(new Dimension(800, 600));
@@ -26,20 +127,174 @@ public class CanvasPanel extends JPanel {
         // La detección de movimiento y clics se realiza en el controlador
     }
 
-    /** 
+    /**
      * Asigna el modelo (debe invocarse desde MainFrame justo después de crearlo).
      */
     public void setModel(LienzoModel modelo) {
+        if (this.modelo != null) {
+            this.modelo.removeLienzoListener(this);
+        }
         this.modelo = modelo;
+        if (modelo != null) {
+            modelo.addLienzoListener(this);
+        }
+        teselas.clear();
+        descartarPendientes(t -> true);
+        repaint();
+    }
+
+    /**
+     * Permite (true, por defecto) o impide pintar las teselas en segundo
+     * plano. Con false se pintan una a una dentro de paint(), que así
+     * siempre dibuja el lienzo completo (útil para medir o imprimir).
+     */
+    public void setParalelo(boolean paralelo) {
+        this.paralelo = paralelo;
+    }
+
+    /**
+     * Escala actual de la vista (1.0 = un píxel de pantalla por unidad del lienzo).
+     */
+    public double getEscala() {
+        return escala;
+    }
+
+    /**
+     * Transformación de coordenadas del lienzo a coordenadas de pantalla.
+     */
+    public AffineTransform getTransformacion() {
+        AffineTransform t = AffineTransform.getTranslateInstance(desplX, desplY);
+        t.scale(escala, escala);
+        return t;
+    }
+
+    /**
+     * Convierte un punto de pantalla (p. ej. de un MouseEvent) a coordenadas
+     * del lienzo, que son las que usan las figuras.
+     */
+    public Point aCoordenadasLienzo(int x, int y) {
+        return new Point((int) Math.floor((x - desplX) / escala),
+                         (int) Math.floor((y - desplY) / escala));
+    }
+
+    /**
+     * Acerca (pasos &gt; 0) o aleja (pasos &lt; 0) la vista manteniendo fijo
+     * el punto del lienzo que está bajo (x, y) en pantalla.
+     */
+    public void zoom(int pasos, int x, int y) {
+        int nivel = Math.max(NIVEL_MIN, Math.min(NIVEL_MAX, nivelZoom + pasos));
+        if (nivel == nivelZoom) return;
+        double lienzoX = (x - desplX) / escala;
+        double lienzoY = (y - desplY) / escala;
+        nivelZoom = nivel;
+        escala = escalaDeNivel(nivel);
+        desplX = (int) Math.round(x - lienzoX * escala);
+        desplY = (int) Math.round(y - lienzoY * escala);
+        vistaCambiada();
+    }
+
+    /**
+     * Desplaza la vista (dx, dy) píxeles de pantalla.
+     */
+    public void desplazar(int dx, int dy) {
+        if (dx == 0 && dy == 0) return;
+        desplX += dx;
+        desplY += dy;
+        vistaCambiada();
+    }
+
+    /**
+     * Máximo de teselas que pueden verse a la vez con el tamaño actual del panel.
+     */
+    private int teselasEnPantalla() {
+        int columnas = (getWidth() + TAMANO_TESELA - 1) / TAMANO_TESELA + 1;
+        int filas = (getHeight() + TAMANO_TESELA - 1) / TAMANO_TESELA + 1;
+        return columnas * filas;
+    }
+
+    private void vistaCambiada() {
+        // Las teselas no dependen del desplazamiento, la capa de la polilínea sí
+        ladosEnCapa = -1;
+        // Lo pedido para otro nivel o que ya no se ve solo retrasaría lo que sí se ve
+        descartarPendientes(t -> t.nivel != nivelZoom || !enPantalla(t));
         repaint();
     }
 
+    /**
+     * Indica si alguna parte de la tesela (del nivel actual) cae dentro del panel.
+     */
+    private boolean enPantalla(Tesela t) {
+        int x = t.tx * TAMANO_TESELA + desplX;
+        int y = t.ty * TAMANO_TESELA + desplY;
+        return x < getWidth() && x + TAMANO_TESELA > 0
+            && y < getHeight() && y + TAMANO_TESELA > 0;
+    }
+
+    /**
+     * Quita de pendientes, y cancela, las peticiones de las teselas indicadas.
+     */
+    private void descartarPendientes(Predicate<Tesela> descartar) {
+        Iterator<Map.Entry<Tesela, CompletableFuture<BufferedImage>>> it =
+            pendientes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Tesela, CompletableFuture<BufferedImage>> e = it.next();
+            if (descartar.test(e.getKey())) {
+                e.getValue().cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    private static double escalaDeNivel(int nivel) {
+        return Math.pow(FACTOR_ZOOM, nivel);
+    }
+
     /**
      * Permite que el controlador actualice la figura temporal
      * que queremos pintar entre clics o arrastres.
      */
     public void setFiguraTemporal(Figura fTemp) {
+        Figura anterior = this.figuraTemporal;
         this.figuraTemporal = fTemp;
+        // Solo la zona que ocupaban la vista previa anterior y la nueva
+        Limites zona = (fTemp != null) ? fTemp.getLimites() : Limites.VACIO;
+        if (anterior != null) {
+            zona = anterior.getLimites().union(zona);
+        }
+        repintar(zona);
+    }
+
+    /**
+     * Nueva figura en el modelo: se pinta sobre las teselas del nivel actual
+     * que corta, se descartan las de otros niveles que corta y se repinta
+     * solo su zona. Las que corta y se estaban pintando se piden de nuevo,
+     * porque se pintaban sin ella.
+     */
+    @Override
+    public void figuraAgregada(Figura f) {
+        Limites lim = f.getLimites();
+        descartarPendientes(t -> lim.intersecta(t.limitesLienzo()));
+        Iterator<Map.Entry<Tesela, BufferedImage>> it = teselas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Tesela, BufferedImage> e = it.next();
+            Tesela t = e.getKey();
+            if (!lim.intersecta(t.limitesLienzo())) continue;
+            if (t.nivel == nivelZoom) {
+                Graphics2D g2 = e.getValue().createGraphics();
+                g2.transform(t.getTransformacion());
+                f.dibujar(g2);
+                g2.dispose();
+            } else {
+                it.remove();
+            }
+        }
+        repintar(lim);
+    }
+
+    @Override
+    public void lienzoVaciado() {
+        teselas.clear();
+        descartarPendientes(t -> true);
         repaint();
     }
 
@@ -48,24 +303,356 @@ public class CanvasPanel extends JPanel {
         super.paintComponent(g);
         if (modelo != null) {
             Graphics2D g2 = (Graphics2D) g.create();
-            // Dibujamos todas las figuras del modelo
-            for (Figura f : modelo.getFiguras()) {
-                f.dibujar(g2);
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            pintarTeselas(g2, clip);
+
+            // Lo que no está en las teselas se pinta con la transformación de la vista
+            g2.transform(getTransformacion());
+            if (polilinea != null) {
+                pintarPolilinea(g, g2);
             }
             // Si hay figura temporal, dibujarla encima
-            if (figuraTemporal != null) {
+            if (figuraTemporal != null
+                    && figuraTemporal.getLimites().intersecta(aLienzo(clip))) {
                 figuraTemporal.dibujar(g2);
             }
             g2.dispose();
         }
     }
 
+    /**
+     * Copia las teselas que tocan la zona de pantalla dada. Las que no estén
+     * en la caché se piden (ver pintarTeselasQueFaltan) y de momento no se
+     * copian: se ve el fondo.
+     */
+    private void pintarTeselas(Graphics2D g, Rectangle clip) {
+        int tx0 = Math.floorDiv(clip.x - desplX, TAMANO_TESELA);
+        int ty0 = Math.floorDiv(clip.y - desplY, TAMANO_TESELA);
+        int tx1 = Math.floorDiv(clip.x + clip.width - 1 - desplX, TAMANO_TESELA);
+        int ty1 = Math.floorDiv(clip.y + clip.height - 1 - desplY, TAMANO_TESELA);
+        int columnas = tx1 - tx0 + 1;
+        Tesela[] visibles = new Tesela[columnas * (ty1 - ty0 + 1)];
+        BufferedImage[] imagenes = new BufferedImage[visibles.length];
+        List<Integer> faltan = new ArrayList<>();
+        for (int k = 0; k < visibles.length; k++) {
+            visibles[k] = new Tesela(nivelZoom, tx0 + k % columnas, ty0 + k / columnas);
+            imagenes[k] = teselas.get(visibles[k]);
+            if (imagenes[k] == null) {
+                faltan.add(k);
+            }
+        }
+        pintarTeselasQueFaltan(visibles, imagenes, faltan);
+
+        for (int k = 0; k < visibles.length; k++) {
+            if (imagenes[k] == null) continue;
+            Tesela t = visibles[k];
+            int x = t.tx * TAMANO_TESELA + desplX;
+            int y = t.ty * TAMANO_TESELA + desplY;
+            g.drawImage(imagenes[k], x, y, x + TAMANO_TESELA, y + TAMANO_TESELA,
+                        MARGEN_TESELA, MARGEN_TESELA,
+                        MARGEN_TESELA + TAMANO_TESELA, MARGEN_TESELA + TAMANO_TESELA, null);
+        }
+    }
+
+    /**
+     * Pide las teselas de las posiciones indicadas que no estén ya pedidas.
+     *
+     * Con el renderizado en segundo plano activo, el EDT solo consulta el
+     * índice espacial (LienzoModel.prepararDibujoEn, que fija las figuras de
+     * ese momento) y cada tesela se pinta en su propia imagen en un hilo de
+     * PINTORES; los hilos nunca leen el modelo vivo. Al terminar, ya en el
+     * EDT, la tesela entra en la caché y se repinta su zona. Al cambiar de
+     * zoom o desplazar la vista se cancelan las pedidas que ya no se ven
+     * (vistaCambiada), y un hilo no pinta una petición cancelada. Cada tesela se
+     * pinta igual en cualquier hilo: el resultado es idéntico píxel a píxel
+     * al de pintarlas una a una en el EDT, que es lo que se hace si está
+     * desactivado.
+     */
+    private void pintarTeselasQueFaltan(Tesela[] visibles, BufferedImage[] imagenes,
+                                        List<Integer> faltan) {
+        if (faltan.isEmpty()) return;
+        Color fondo = getBackground();
+        if (!paralelo) {
+            LienzoModel m = modelo;
+            for (int k : faltan) {
+                Tesela t = visibles[k];
+                imagenes[k] = pintarTesela(t, g -> m.dibujarEn(g, t.limitesLienzo()), fondo);
+                teselas.put(t, imagenes[k]);
+            }
+            return;
+        }
+        for (int k : faltan) {
+            Tesela t = visibles[k];
+            if (pendientes.containsKey(t)) continue;
+            Consumer<Graphics2D> pintor = modelo.prepararDibujoEn(t.limitesLienzo());
+            CompletableFuture<BufferedImage> tarea = new CompletableFuture<>();
+            PINTORES.execute(() -> {
+                // Cancelada mientras esperaba en la cola: ya no hace falta
+                if (tarea.isDone()) return;
+                try {
+                    tarea.complete(pintarTesela(t, pintor, fondo));
+                } catch (RuntimeException ex) {
+                    tarea.completeExceptionally(ex);
+                }
+            });
+            pendientes.put(t, tarea);
+            tarea.whenComplete((img, error) ->
+                SwingUtilities.invokeLater(() -> teselaPintada(t, tarea, img, error)));
+        }
+    }
+
+    /**
+     * Llega una tesela pintada en segundo plano (en el EDT). Si sigue siendo
+     * la petición vigente se guarda y se repinta su zona; si no, se descarta.
+     */
+    private void teselaPintada(Tesela t, CompletableFuture<BufferedImage> tarea,
+                               BufferedImage img, Throwable error) {
+        if (pendientes.get(t) != tarea) return;
+        pendientes.remove(t);
+        if (error != null) {
+            // No debería pasar; sin la imagen la tesela se vuelve a pedir en el próximo paint()
+            error.printStackTrace();
+            return;
+        }
+        teselas.put(t, img);
+        if (t.nivel == nivelZoom) {
+            repaint(t.tx * TAMANO_TESELA + desplX, t.ty * TAMANO_TESELA + desplY,
+                    TAMANO_TESELA, TAMANO_TESELA);
+        }
+    }
+
+    /**
+     * Pinta en una imagen nueva el fondo y las figuras que tocan la tesela.
+     * No usa nada del panel ni del modelo: se puede llamar desde cualquier hilo.
+     *
+     * @param pintor figuras de la tesela (LienzoModel.prepararDibujoEn)
+     */
+    private static BufferedImage pintarTesela(Tesela t, Consumer<Graphics2D> pintor, Color fondo) {
+        BufferedImage img = new BufferedImage(LADO_IMAGEN_TESELA, LADO_IMAGEN_TESELA,
+                                              BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        g2.setColor(fondo);
+        g2.fillRect(0, 0, LADO_IMAGEN_TESELA, LADO_IMAGEN_TESELA);
+        g2.transform(t.getTransformacion());
+        pintor.accept(g2);
+        g2.dispose();
+        return img;
+    }
+
+    /**
+     * Copia la capa de la polilínea (pintando antes en ella los lados que
+     * falten) y dibuja encima la banda elástica y el lado de cierre.
+     *
+     * @param pantalla Graphics sin transformar, para copiar la capa
+     * @param g Graphics con la transformación de la vista
+     */
+    private void pintarPolilinea(Graphics pantalla, Graphics2D g) {
+        int n = polilinea.tamano();
+        int w = getWidth();
+        int h = getHeight();
+        if (w > 0 && h > 0) {
+            if (capaPolilinea == null
+                    || capaPolilinea.getWidth() != w || capaPolilinea.getHeight() != h) {
+                capaPolilinea = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+                ladosEnCapa = 0; // una imagen nueva ya es transparente
+            }
+            if (ladosEnCapa > n - 1) {
+                // La polilínea se vació y volvió a empezar
+                ladosEnCapa = -1;
+            }
+            if (ladosEnCapa < n - 1) {
+                Graphics2D gp = capaPolilinea.createGraphics();
+                if (ladosEnCapa < 0) {
+                    gp.setComposite(AlphaComposite.Clear);
+                    gp.fillRect(0, 0, w, h);
+                    gp.setComposite(AlphaComposite.SrcOver);
+                    ladosEnCapa = 0;
+                }
+                gp.transform(getTransformacion());
+                gp.setColor(colorPolilinea);
+                for (int i = ladosEnCapa; i < n - 1; i++) {
+                    gp.drawLine(polilinea.getX(i), polilinea.getY(i),
+                                polilinea.getX(i + 1), polilinea.getY(i + 1));
+                }
+                gp.dispose();
+                ladosEnCapa = n - 1;
+            }
+            pantalla.drawImage(capaPolilinea, 0, 0, null);
+        }
+        if (hayCursor && n > 0) {
+            g.setColor(colorPolilinea);
+            g.drawLine(polilinea.getX(n - 1), polilinea.getY(n - 1), cursorX, cursorY);
+            if (n >= 2) {
+                g.drawLine(cursorX, cursorY, polilinea.getX(0), polilinea.getY(0));
+            }
+        }
+    }
+
+    /**
+     * Empieza a mostrar un polígono irregular en construcción.
+     * Después, el controlador avisa con verticeAgregado() tras cada clic.
+     *
+     * @param color color de los lados
+     */
+    public void mostrarPolilinea(PolilineaEnConstruccion polilinea, Color color) {
+        this.polilinea = polilinea;
+        this.colorPolilinea = color;
+        this.ladosEnCapa = -1;
+        this.hayCursor = false;
+        repaint();
+    }
+
+    /**
+     * Se ha añadido un vértice a la polilínea mostrada: se repintan el lado
+     * nuevo y las zonas de la banda elástica antes y después del cambio.
+     */
+    public void verticeAgregado() {
+        if (polilinea == null) return;
+        int n = polilinea.tamano();
+        Limites zona = Limites.VACIO;
+        if (n >= 2) {
+            // Banda anterior (salía del penúltimo vértice) y lado nuevo
+            zona = limitesBanda(n - 1).union(limitesLado(n - 2, n - 1));
+        }
+        repintar(zona.union(limitesBanda(n)));
+    }
+
+    /**
+     * Mueve el extremo de la banda elástica a (x, y), en coordenadas del lienzo.
+     */
+    public void moverCursorPolilinea(int x, int y) {
+        if (polilinea == null) return;
+        Limites antes = limitesBanda(polilinea.tamano());
+        cursorX = x;
+        cursorY = y;
+        hayCursor = true;
+        repintar(antes.union(limitesBanda(polilinea.tamano())));
+    }
+
+    /**
+     * Deja de mostrar el polígono en construcción.
+     */
+    public void ocultarPolilinea() {
+        if (polilinea == null) return;
+        polilinea = null;
+        hayCursor = false;
+        ladosEnCapa = -1;
+        repaint();
+    }
+
+    /**
+     * Caja de la banda elástica y el lado de cierre con los n primeros
+     * vértices de la polilínea.
+     */
+    private Limites limitesBanda(int n) {
+        if (!hayCursor || n <= 0) {
+            return Limites.VACIO;
+        }
+        int ux = polilinea.getX(n - 1), uy = polilinea.getY(n - 1);
+        int px = polilinea.getX(0), py = polilinea.getY(0);
+        return Limites.deExtremos(
+            Math.min(cursorX, Math.min(ux, px)), Math.min(cursorY, Math.min(uy, py)),
+            Math.max(cursorX, Math.max(ux, px)), Math.max(cursorY, Math.max(uy, py))
+        );
+    }
+
+    private Limites limitesLado(int i, int j) {
+        int x1 = polilinea.getX(i), y1 = polilinea.getY(i);
+        int x2 = polilinea.getX(j), y2 = polilinea.getY(j);
+        return Limites.deExtremos(Math.min(x1, x2), Math.min(y1, y2),
+                                  Math.max(x1, x2), Math.max(y1, y2));
+    }
+
     /**
      * Reinicia la figura temporal. Llamado por el controlador una vez
      * que la figura definitiva está almacenada en el modelo.
      */
     public void clearFiguraTemporal() {
+        Figura anterior = this.figuraTemporal;
         this.figuraTemporal = null;
-        repaint();
+        if (anterior != null) {
+            repintar(anterior.getLimites());
+        }
+    }
+
+    /**
+     * Marca como sucia solo la zona indicada (en coordenadas del lienzo).
+     */
+    private void repintar(Limites zona) {
+        if (zona.isVacio()) return;
+        // Un píxel más por lado por el redondeo al escalar
+        int x0 = (int) Math.floor(zona.getX() * escala) + desplX - 1;
+        int y0 = (int) Math.floor(zona.getY() * escala) + desplY - 1;
+        int x1 = (int) Math.ceil((zona.getX() + zona.getAncho()) * escala) + desplX + 1;
+        int y1 = (int) Math.ceil((zona.getY() + zona.getAlto()) * escala) + desplY + 1;
+        repaint(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Zona del lienzo que se ve en el rectángulo de pantalla dado
+     * (con un píxel de margen por lado).
+     */
+    private Rectangle aLienzo(Rectangle pantalla) {
+        return limitesLienzo(pantalla.x - desplX, pantalla.y - desplY,
+                             pantalla.width, pantalla.height, escala);
+    }
+
+    /**
+     * Zona del lienzo que, a la escala dada, cubre el rectángulo (x, y, w, h)
+     * medido en píxeles desde el origen del lienzo escalado.
+     */
+    private static Rectangle limitesLienzo(int x, int y, int w, int h, double escala) {
+        int x0 = (int) Math.floor(x / escala) - 1;
+        int y0 = (int) Math.floor(y / escala) - 1;
+        int x1 = (int) Math.ceil((x + w) / escala) + 1;
+        int y1 = (int) Math.ceil((y + h) / escala) + 1;
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Identifica una tesela: nivel de zoom y posición (columna, fila) en la
+     * rejilla de teselas del lienzo escalado a ese nivel. No depende del
+     * desplazamiento de la vista.
+     */
+    private static final class Tesela {
+        final int nivel, tx, ty;
+
+        Tesela(int nivel, int tx, int ty) {
+            this.nivel = nivel;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        /** Transformación de coordenadas del lienzo a píxeles de la imagen de la tesela. */
+        AffineTransform getTransformacion() {
+            double esc = escalaDeNivel(nivel);
+            AffineTransform t = AffineTransform.getTranslateInstance(
+                MARGEN_TESELA - (double) tx * TAMANO_TESELA,
+                MARGEN_TESELA - (double) ty * TAMANO_TESELA);
+            t.scale(esc, esc);
+            return t;
+        }
+
+        /** Zona del lienzo que cubre la imagen de la tesela, margen incluido. */
+        Rectangle limitesLienzo() {
+            return CanvasPanel.limitesLienzo(
+                tx * TAMANO_TESELA - MARGEN_TESELA, ty * TAMANO_TESELA - MARGEN_TESELA,
+                LADO_IMAGEN_TESELA, LADO_IMAGEN_TESELA, escalaDeNivel(nivel));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Tesela)) return false;
+            Tesela t = (Tesela) o;
+            return nivel == t.nivel && tx == t.tx && ty == t.ty;
+        }
+
+        @Override
+        public int hashCode() {
+            return (nivel * 31 + tx) * 31 + ty;
+        }
     }
 }
@@ -13,6 +13,9 @@ import javax.swing.JPanel;
 import javax.swing.JSlider;
 import javax.swing.SwingConstants;
 
+import model.AlmacenColumnar;
+import model.AlmacenFiguras;
+import model.AlmacenLista;
 import model.LienzoModel;
 
 /**
@@ -29,6 +32,8 @@ public class MainFrame extends JFrame {
     private final JButton btnGuardar;
     private final JButton btnCargar;
     private final JButton btnExportarSVG;
+    private final JButton btnGuardarArchivo;
+    private final JButton btnAbrirArchivo;
     private final JButton btnFinalizarPoligono;
 
     // Modelo en memoria (Model)
@@ -91,6 +96,15 @@ public class MainFrame extends JFrame {
         btnExportarSVG.setEnabled(false);
         panelControles.add(btnExportarSVG, gbc);
 
+        // Archivo binario propio (sin BD)
+        gbc.gridy++;
+        btnGuardarArchivo = new JButton("Guardar en archivo");
+        btnGuardarArchivo.setEnabled(false);
+        panelControles.add(btnGuardarArchivo, gbc);
+        gbc.gridy++;
+        btnAbrirArchivo = new JButton("Abrir archivo");
+        panelControles.add(btnAbrirArchivo, gbc);
+
         // 5. Botón para “Finalizar pol. irr.”
         gbc.gridy++;
         btnFinalizarPoligono = new JButton("Finalizar Pol. irregular");
@@ -101,7 +115,7 @@ public class MainFrame extends JFrame {
 
         // CANVAS (centro)
         canvas = new CanvasPanel();
-        lienzoModel = new LienzoModel();
+        lienzoModel = new LienzoModel(crearAlmacen());
         canvas.setModel(lienzoModel);
         add(canvas, BorderLayout.CENTER);
 
@@ -112,6 +126,18 @@ public class MainFrame extends JFrame {
         setLocationRelativeTo(null);
     }
 
+    /**
+     * Almacén de figuras según la propiedad LIENZO_ALMACEN:
+     * "columnar" para AlmacenColumnar; cualquier otro valor, lista de objetos.
+     */
+    private static AlmacenFiguras crearAlmacen() {
+        String tipo = System.getProperty("LIENZO_ALMACEN", "lista");
+        if ("columnar".equalsIgnoreCase(tipo)) {
+            return new AlmacenColumnar();
+        }
+        return new AlmacenLista();
+    }
+
     // -----------------------
     // GETTERS para Controller
     // -----------------------
@@ -152,6 +178,14 @@ public class MainFrame extends JFrame {
         return btnExportarSVG;
     }
 
+    public JButton getBtnGuardarArchivo() {
+        return btnGuardarArchivo;
+    }
+
+    public JButton getBtnAbrirArchivo() {
+        return btnAbrirArchivo;
+    }
+
     public JButton getBtnFinalizarPoligono() {
         return btnFinalizarPoligono;
     }
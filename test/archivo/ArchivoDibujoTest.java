@@ -0,0 +1,85 @@
+package archivo;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PoligonoIrregularFigura;
+import model.PoligonoRegularFigura;
+import model.ProgresoListener;
+import model.PuntoFigura;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class ArchivoDibujoTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private final ArchivoDibujo archivo = new ArchivoDibujo();
+
+    private static List<Figura> dibujo() {
+        List<Figura> figuras = new ArrayList<>();
+        figuras.add(new PuntoFigura(3, 4, Color.RED));
+        figuras.add(new LineaFigura(-10, 0, 10, 20, Color.BLUE));
+        figuras.add(new CirculoFigura(50, 60, 7, Color.BLACK, new Color(0x336699), true));
+        figuras.add(new PoligonoRegularFigura(100, 100, 30, 6, 0.25, Color.BLACK, Color.WHITE, false));
+        figuras.add(new PoligonoIrregularFigura(
+            new int[] { 0, 1000, 1000, -5 }, new int[] { 0, 0, 70000, 3 },
+            Color.GREEN, Color.ORANGE, true));
+        return figuras;
+    }
+
+    @Test
+    public void guardarYAbrirConservaLasFiguras() throws IOException {
+        Path ruta = carpeta.getRoot().toPath().resolve("dibujo.dib");
+        List<Figura> original = dibujo();
+        archivo.guardar(original, ruta, ProgresoListener.NINGUNO);
+
+        List<Figura> leidas = archivo.abrir(ruta, ProgresoListener.NINGUNO);
+        assertEquals(original.size(), leidas.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).toSVG(), leidas.get(i).toSVG());
+        }
+        PoligonoIrregularFigura p = (PoligonoIrregularFigura) leidas.get(4);
+        assertEquals(4, p.getNumVertices());
+        assertEquals(70000, p.getVerticeY(2));
+        assertEquals(-5, p.getVerticeX(3));
+    }
+
+    @Test
+    public void sePuedeVolverAGuardarSobreElArchivoAbierto() throws IOException {
+        Path ruta = carpeta.getRoot().toPath().resolve("dibujo.dib");
+        archivo.guardar(dibujo(), ruta, ProgresoListener.NINGUNO);
+        List<Figura> leidas = archivo.abrir(ruta, ProgresoListener.NINGUNO);
+        leidas.add(new PuntoFigura(1, 1, Color.BLACK));
+
+        archivo.guardar(leidas, ruta, ProgresoListener.NINGUNO);
+        assertEquals(6, archivo.abrir(ruta, ProgresoListener.NINGUNO).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void archivoTruncadoEsUnError() throws IOException {
+        Path ruta = carpeta.getRoot().toPath().resolve("dibujo.dib");
+        archivo.guardar(dibujo(), ruta, ProgresoListener.NINGUNO);
+        byte[] datos = Files.readAllBytes(ruta);
+        Files.write(ruta, Arrays.copyOf(datos, datos.length - 3));
+        archivo.abrir(ruta, ProgresoListener.NINGUNO);
+    }
+
+    @Test(expected = IOException.class)
+    public void archivoAjenoEsUnError() throws IOException {
+        Path ruta = carpeta.getRoot().toPath().resolve("otro.dib");
+        Files.write(ruta, "esto no es un dibujo".getBytes("UTF-8"));
+        archivo.abrir(ruta, ProgresoListener.NINGUNO);
+    }
+}
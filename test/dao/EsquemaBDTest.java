@@ -0,0 +1,88 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * El esquema debe poder crearse en una BD que no sea MySQL (H2 en memoria).
+ */
+public class EsquemaBDTest {
+    private Connection conn;
+
+    @Before
+    public void abrir() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:esquema", "sa", "");
+    }
+
+    @After
+    public void cerrar() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    public void creaLasTablasYEsIdempotente() throws SQLException {
+        assertFalse(EsquemaBD.esMySQL(conn));
+        EsquemaBD.crearTablas(conn);
+        EsquemaBD.crearTablas(conn);
+        assertTrue(EsquemaBD.existeTabla(conn, "dibujos"));
+        assertTrue(EsquemaBD.existeTabla(conn, "figuras"));
+        assertTrue(EsquemaBD.existeTabla(conn, "vertices_poligonos_irregulares"));
+        assertTrue(EsquemaBD.existeColumna(conn, "figuras", "vertices_blob"));
+    }
+
+    @Test
+    public void migraLosVerticesAntiguosAlBlob() throws SQLException {
+        EsquemaBD.crearTablas(conn);
+        int idFigura;
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO dibujos(nombre) VALUES ('antiguo')");
+            st.executeUpdate("INSERT INTO figuras(id_dibujo, orden, tipo, color_trazo, "
+                + "color_relleno, relleno) SELECT id_dibujo, 0, 'POLIG_IRREG', 0, 0, 0 "
+                + "FROM dibujos WHERE nombre = 'antiguo'");
+            try (ResultSet rs = st.executeQuery("SELECT id_figura FROM figuras")) {
+                assertTrue(rs.next());
+                idFigura = rs.getInt(1);
+            }
+        }
+        int[][] vertices = { { 0, 0 }, { 10, 0 }, { 10, 10 }, { 0, 10 } };
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO vertices_poligonos_irregulares(id_figura, x, y, orden_vert) "
+                + "VALUES (?, ?, ?, ?)")) {
+            // Insertadas desordenadas: la migración debe respetar orden_vert
+            for (int i = vertices.length - 1; i >= 0; i--) {
+                ps.setInt(1, idFigura);
+                ps.setInt(2, vertices[i][0]);
+                ps.setInt(3, vertices[i][1]);
+                ps.setInt(4, i);
+                ps.executeUpdate();
+            }
+        }
+
+        assertEquals(1, EsquemaBD.migrarVerticesABlob(conn));
+        assertEquals(0, EsquemaBD.migrarVerticesABlob(conn));
+        assertTrue(conn.getAutoCommit());
+
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT vertices_blob FROM figuras")) {
+                assertTrue(rs.next());
+                int[][] xy = CodificadorVertices.decodificar(rs.getBytes(1));
+                assertArrayEquals(new int[] { 0, 10, 10, 0 }, xy[0]);
+                assertArrayEquals(new int[] { 0, 0, 10, 10 }, xy[1]);
+            }
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT COUNT(*) FROM vertices_poligonos_irregulares")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        }
+    }
+}
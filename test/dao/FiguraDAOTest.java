@@ -0,0 +1,167 @@
+package dao;
+
+import java.awt.Color;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PoligonoIrregularFigura;
+import model.ProgresoListener;
+import model.PuntoFigura;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * DAOs de dibujos y figuras contra una H2 en memoria (vía ConexionBD).
+ */
+public class FiguraDAOTest {
+    private static FiguraDAO figuraDAO;
+    private static DibujoDAO dibujoDAO;
+
+    @BeforeClass
+    public static void configurarBD() {
+        // Antes de cargar ConexionBD, que lee DB_URL al inicializarse
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("DB_URL", "jdbc:h2:mem:paint;DB_CLOSE_DELAY=-1");
+        System.setProperty("DB_USER", "sa");
+        System.setProperty("DB_PASS", "");
+        figuraDAO = new FiguraDAO();
+        dibujoDAO = new DibujoDAO();
+    }
+
+    private static List<Figura> puntos(int n) {
+        List<Figura> figuras = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            figuras.add(new PuntoFigura(i, i, Color.BLACK));
+        }
+        return figuras;
+    }
+
+    private static int contar(String sql) throws SQLException {
+        try (Connection conn = ConexionBD.getInstancia().getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void guardaYCargaUnDibujoNuevo() throws SQLException {
+        List<Figura> figuras = new ArrayList<>();
+        figuras.add(new PuntoFigura(1, 2, Color.RED));
+        figuras.add(new LineaFigura(0, 0, 30, 40, Color.BLUE));
+        figuras.add(new CirculoFigura(50, 50, 10, Color.BLACK, Color.GREEN, true));
+        figuras.add(new PoligonoIrregularFigura(
+            new int[] { 0, 10, 10 }, new int[] { 0, 0, 10 }, Color.BLACK, Color.WHITE, false));
+
+        int id = figuraDAO.guardarDibujoNuevo("completo", figuras, ProgresoListener.NINGUNO);
+        assertEquals(id, dibujoDAO.obtenerIdPorNombre("completo"));
+
+        List<Figura> cargadas = figuraDAO.cargarFigurasPorDibujo(id);
+        assertEquals(4, cargadas.size());
+        assertTrue(cargadas.get(1) instanceof LineaFigura);
+        PoligonoIrregularFigura p = (PoligonoIrregularFigura) cargadas.get(3);
+        assertEquals(3, p.getNumVertices());
+        assertEquals(10, p.getVerticeY(2));
+    }
+
+    @Test
+    public void cancelarUnDibujoNuevoNoDejaNada() throws SQLException {
+        int dibujosAntes = contar("SELECT COUNT(*) FROM dibujos");
+        int figurasAntes = contar("SELECT COUNT(*) FROM figuras");
+        // Cancela tras el primer lote, cuando ya hay filas insertadas
+        ProgresoListener cancelar = (procesadas, total) -> procesadas == 0;
+        try {
+            figuraDAO.guardarDibujoNuevo("cancelado", puntos(2500), cancelar);
+            fail("Debería cancelarse");
+        } catch (CancellationException ex) {
+            // esperado
+        }
+        assertEquals(-1, dibujoDAO.obtenerIdPorNombre("cancelado"));
+        assertEquals(dibujosAntes, contar("SELECT COUNT(*) FROM dibujos"));
+        assertEquals(figurasAntes, contar("SELECT COUNT(*) FROM figuras"));
+    }
+
+    @Test
+    public void nombreRepetidoFallaSinTocarElExistente() throws SQLException {
+        int id = figuraDAO.guardarDibujoNuevo("repetido", puntos(3), ProgresoListener.NINGUNO);
+        try {
+            figuraDAO.guardarDibujoNuevo("repetido", puntos(5), ProgresoListener.NINGUNO);
+            fail("El nombre ya existía");
+        } catch (SQLException ex) {
+            assertTrue(PersistenciaAsincrona.esNombreDuplicado(ex));
+        }
+        assertEquals(3, figuraDAO.cargarFigurasPorDibujo(id).size());
+    }
+
+    @Test
+    public void sobrescribirReemplazaLasFiguras() throws SQLException {
+        int id = figuraDAO.guardarDibujoNuevo("sobrescrito", puntos(3), ProgresoListener.NINGUNO);
+        figuraDAO.guardarDibujoCompleto(id, puntos(7));
+        assertEquals(7, figuraDAO.cargarFigurasPorDibujo(id).size());
+    }
+
+    @Test
+    public void cargaPoligonosConVerticesDelFormatoAntiguo() throws SQLException {
+        List<Figura> figuras = new ArrayList<>();
+        figuras.add(new PuntoFigura(1, 1, Color.RED));
+        figuras.add(new PoligonoIrregularFigura(
+            new int[] { 0, 5, 5 }, new int[] { 0, 0, 5 }, Color.BLACK, Color.WHITE, false));
+        figuras.add(new PuntoFigura(2, 2, Color.RED));
+        figuras.add(new PoligonoIrregularFigura(
+            new int[] { 0, 5, 5 }, new int[] { 0, 0, 5 }, Color.BLUE, Color.GREEN, true));
+        int id = figuraDAO.guardarDibujoNuevo("antiguo", figuras, ProgresoListener.NINGUNO);
+
+        // Pasar los dos polígonos al formato de una fila por vértice
+        int[][] cuadrado = { { 0, 0 }, { 20, 0 }, { 20, 20 }, { 0, 20 } };
+        try (Connection conn = ConexionBD.getInstancia().getConnection();
+             Statement st = conn.createStatement();
+             PreparedStatement ps = conn.prepareStatement(
+                 "INSERT INTO vertices_poligonos_irregulares(id_figura, x, y, orden_vert) "
+                 + "VALUES (?, ?, ?, ?)")) {
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet rs = st.executeQuery("SELECT id_figura FROM figuras WHERE id_dibujo = "
+                    + id + " AND tipo = 'POLIG_IRREG' ORDER BY orden")) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            st.executeUpdate("UPDATE figuras SET vertices_blob = NULL WHERE id_dibujo = " + id);
+            for (int k = 0; k < ids.size(); k++) {
+                // El segundo polígono con un vértice menos, para distinguirlos
+                for (int i = 0; i < cuadrado.length - k; i++) {
+                    ps.setInt(1, ids.get(k));
+                    ps.setInt(2, cuadrado[i][0]);
+                    ps.setInt(3, cuadrado[i][1]);
+                    ps.setInt(4, i);
+                    ps.executeUpdate();
+                }
+            }
+        }
+
+        List<Figura> cargadas = figuraDAO.cargarFigurasPorDibujo(id);
+        assertEquals(4, cargadas.size());
+        assertTrue(cargadas.get(0) instanceof PuntoFigura);
+        assertTrue(cargadas.get(2) instanceof PuntoFigura);
+        PoligonoIrregularFigura p1 = (PoligonoIrregularFigura) cargadas.get(1);
+        PoligonoIrregularFigura p2 = (PoligonoIrregularFigura) cargadas.get(3);
+        assertEquals(4, p1.getNumVertices());
+        assertEquals(20, p1.getVerticeX(1));
+        assertEquals(20, p1.getVerticeY(3));
+        assertFalse(p1.isRelleno());
+        assertEquals(3, p2.getNumVertices());
+        assertTrue(p2.isRelleno());
+        assertEquals(Color.GREEN.getRGB(), p2.getColorRelleno().getRGB());
+    }
+}
@@ -0,0 +1,245 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del pool contra una H2 en memoria (una BD distinta por prueba).
+ */
+public class PoolConexionesTest {
+    private static final AtomicInteger SIGUIENTE_BD = new AtomicInteger();
+
+    private PoolConexiones pool;
+
+    private PoolConexiones crearPool(int min, int max, long inactividadMs, long esperaMs)
+            throws SQLException {
+        String url = "jdbc:h2:mem:pool" + SIGUIENTE_BD.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        pool = new PoolConexiones(url, "sa", "",
+            new ConfiguracionPool(min, max, inactividadMs, esperaMs, 1));
+        return pool;
+    }
+
+    @After
+    public void cerrarPool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void abreElMinimoPorAdelantado() throws SQLException {
+        crearPool(2, 4, 60000, 1000);
+        EstadisticasPool e = pool.getEstadisticas();
+        assertEquals(0, e.getActivas());
+        assertEquals(2, e.getInactivas());
+    }
+
+    @Test
+    public void cerrarDevuelveLaConexionAlPool() throws SQLException {
+        crearPool(0, 1, 60000, 1000);
+        Connection fisica;
+        try (Connection c = pool.obtener()) {
+            fisica = c.unwrap(JdbcConnection.class);
+            assertEquals(1, pool.getEstadisticas().getActivas());
+        }
+        assertTrue(!fisica.isClosed());
+        assertEquals(0, pool.getEstadisticas().getActivas());
+        assertEquals(1, pool.getEstadisticas().getInactivas());
+        // La misma conexión física se reutiliza
+        try (Connection c = pool.obtener()) {
+            assertSame(fisica, c.unwrap(JdbcConnection.class));
+        }
+    }
+
+    @Test
+    public void esperaAgotadaLanzaTimeout() throws SQLException {
+        crearPool(0, 1, 60000, 100);
+        try (Connection c = pool.obtener()) {
+            assertFalse(c.isClosed());
+            long inicio = System.nanoTime();
+            try {
+                pool.obtener();
+                fail("Debería agotarse la espera");
+            } catch (SQLTimeoutException ex) {
+                long ms = (System.nanoTime() - inicio) / 1_000_000;
+                assertTrue("Esperó " + ms + " ms", ms >= 90);
+            }
+        }
+        assertEquals(1, pool.getEstadisticas().getTimeouts());
+        // Tras devolverla vuelve a poder prestarse
+        try (Connection c = pool.obtener()) {
+            assertFalse(c.isClosed());
+        }
+    }
+
+    @Test
+    public void hiloEnEsperaRecibeLaConexionDevuelta() throws Exception {
+        crearPool(0, 1, 60000, 5000);
+        Connection c = pool.obtener();
+        Thread devolvedor = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                c.close();
+            } catch (InterruptedException | SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        devolvedor.start();
+        try (Connection otra = pool.obtener()) {
+            assertFalse(otra.isClosed());
+        }
+        devolvedor.join();
+        assertEquals(0, pool.getEstadisticas().getTimeouts());
+    }
+
+    @Test
+    public void conexionInvalidaSeDescartaAlPrestar() throws Exception {
+        crearPool(0, 1, 60000, 1000);
+        Connection fisica;
+        try (Connection c = pool.obtener()) {
+            fisica = c.unwrap(JdbcConnection.class);
+        }
+        // Se cae mientras está inactiva; pasado el margen sin validar se comprueba
+        fisica.close();
+        Thread.sleep(600);
+        try (Connection c = pool.obtener();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT 1")) {
+            assertNotSame(fisica, c.unwrap(JdbcConnection.class));
+            assertTrue(rs.next());
+        }
+    }
+
+    @Test
+    public void transaccionPendienteSeDeshaceAlDevolver() throws SQLException {
+        crearPool(0, 1, 60000, 1000);
+        try (Connection c = pool.obtener(); Statement st = c.createStatement()) {
+            st.executeUpdate("CREATE TABLE t (x INT)");
+            c.setAutoCommit(false);
+            st.executeUpdate("INSERT INTO t VALUES (1)");
+        }
+        try (Connection c = pool.obtener();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(c.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void desalojaInactivasRespetandoElMinimo() throws Exception {
+        crearPool(1, 3, 200, 1000);
+        Connection a = pool.obtener();
+        Connection b = pool.obtener();
+        Connection c = pool.obtener();
+        a.close();
+        b.close();
+        c.close();
+        assertEquals(3, pool.getEstadisticas().getInactivas());
+        // El desalojo pasa cada segundo como mínimo
+        long limite = System.currentTimeMillis() + 5000;
+        while (pool.getEstadisticas().getInactivas() > 1 && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, pool.getEstadisticas().getInactivas());
+    }
+
+    @Test
+    public void estadisticasCuentanPrestamosYEsperas() throws Exception {
+        crearPool(0, 2, 60000, 50);
+        for (int i = 0; i < 5; i++) {
+            try (Connection c = pool.obtener()) {
+                assertFalse(c.isClosed());
+                assertEquals(1, pool.getEstadisticas().getActivas());
+            }
+        }
+        Connection a = pool.obtener();
+        Connection b = pool.obtener();
+        try {
+            pool.obtener();
+            fail("Debería agotarse la espera");
+        } catch (SQLTimeoutException ex) {
+            // esperado
+        }
+        EstadisticasPool e = pool.getEstadisticas();
+        assertEquals(2, e.getActivas());
+        assertEquals(0, e.getInactivas());
+        assertEquals(7, e.getPrestamos());
+        assertEquals(1, e.getTimeouts());
+        assertTrue(e.getEsperaMaxMillis() >= 40);
+        a.close();
+        b.close();
+        e = pool.getEstadisticas();
+        assertEquals(0, e.getActivas());
+        assertEquals(2, e.getInactivas());
+    }
+
+    @Test
+    public void sentenciasYMetadatosDevuelvenElProxy() throws SQLException {
+        crearPool(0, 1, 60000, 1000);
+        try (Connection c = pool.obtener()) {
+            try (Statement st = c.createStatement()) {
+                assertSame(c, st.getConnection());
+                try (ResultSet rs = st.executeQuery("SELECT 1")) {
+                    assertSame(st, rs.getStatement());
+                    assertSame(c, rs.getStatement().getConnection());
+                }
+            }
+            try (PreparedStatement ps = c.prepareStatement("SELECT ?")) {
+                assertSame(c, ps.getConnection());
+            }
+            DatabaseMetaData meta = c.getMetaData();
+            assertSame(c, meta.getConnection());
+            // Cerrar la conexión obtenida por cualquier camino la devuelve al pool
+            meta.getConnection().close();
+        }
+        EstadisticasPool e = pool.getEstadisticas();
+        assertEquals(0, e.getActivas());
+        assertEquals(1, e.getInactivas());
+    }
+
+    @Test
+    public void unwrapNoDejaEscaparLaConexionFisica() throws SQLException {
+        crearPool(0, 1, 60000, 1000);
+        Connection fisica;
+        try (Connection c = pool.obtener(); Statement st = c.createStatement()) {
+            fisica = c.unwrap(JdbcConnection.class);
+            assertSame(c, c.unwrap(Connection.class));
+            assertTrue(c.isWrapperFor(Connection.class));
+            assertSame(st, st.unwrap(Statement.class));
+            assertSame(c, st.unwrap(Statement.class).getConnection());
+            // Cerrar lo obtenido con unwrap devuelve la conexión, no la cierra
+            c.unwrap(Connection.class).close();
+            assertEquals(1, pool.getEstadisticas().getInactivas());
+        }
+        assertFalse(fisica.isClosed());
+    }
+
+    @Test
+    public void sentenciaDeConexionDevueltaNoSePuedeUsar() throws SQLException {
+        crearPool(0, 1, 60000, 1000);
+        Statement st;
+        try (Connection c = pool.obtener()) {
+            st = c.createStatement();
+        }
+        try {
+            st.executeQuery("SELECT 1");
+            fail("La conexión ya estaba devuelta");
+        } catch (SQLException ex) {
+            // esperado
+        }
+        st.close();
+    }
+}
@@ -0,0 +1,62 @@
+package lotes;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import model.CirculoFigura;
+import model.Figura;
+import model.LineaFigura;
+import model.PuntoFigura;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RenderizadorLotesTest {
+
+    private static final List<Figura> DIBUJO = Arrays.asList(
+        new CirculoFigura(20, 20, 12, Color.BLACK, Color.YELLOW, true),
+        new LineaFigura(0, 39, 39, 0, Color.BLUE),
+        new PuntoFigura(30, 30, Color.RED));
+
+    private static int[] pixeles(BufferedImage img) {
+        return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+    }
+
+    @Test
+    public void pintaLasFigurasSobreElFondo() {
+        RenderizadorLotes r = new RenderizadorLotes(40, 40, 1.0, 1);
+        r.setColorFondo(Color.GRAY);
+
+        BufferedImage esperada = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = esperada.createGraphics();
+        g.setColor(Color.GRAY);
+        g.fillRect(0, 0, 40, 40);
+        for (Figura f : DIBUJO) {
+            f.dibujar(g);
+        }
+        g.dispose();
+
+        BufferedImage img = r.renderizar(DIBUJO);
+        assertEquals(40, img.getWidth());
+        assertEquals(40, img.getHeight());
+        assertArrayEquals(pixeles(esperada), pixeles(img));
+    }
+
+    @Test
+    public void aplicaLaEscala() {
+        RenderizadorLotes r = new RenderizadorLotes(80, 80, 2.0, 1);
+        BufferedImage img = r.renderizar(List.of(new PuntoFigura(30, 30, Color.RED)));
+        // El punto (radio 3) queda centrado en (60, 60) con radio 6
+        assertEquals(Color.RED.getRGB(), img.getRGB(60, 60));
+        assertEquals(Color.RED.getRGB(), img.getRGB(56, 60));
+        assertEquals(Color.WHITE.getRGB(), img.getRGB(30, 30));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void menosEnCursoQueConsultasEsUnError() {
+        new RenderizadorLotes(10, 10, 1.0, 4, 2);
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AlmacenColumnarTest {
+
+    private static AlmacenColumnar almacen() {
+        AlmacenColumnar a = new AlmacenColumnar();
+        a.agregar(new PuntoFigura(10, 12, Color.RED));
+        a.agregar(new LineaFigura(0, 0, 60, 45, new Color(0x80336699, true)));
+        a.agregar(new CirculoFigura(30, 30, 14, Color.BLACK, Color.YELLOW, true));
+        a.agregar(new PoligonoRegularFigura(40, 20, 15, 7, 0.3, Color.BLUE, Color.PINK, true));
+        a.agregar(new PoligonoIrregularFigura(
+            new int[] { 5, 55, 50, 8 }, new int[] { 5, 10, 58, 40 }, Color.GREEN, Color.ORANGE, true));
+        // Segundo polígono: sus vértices no empiezan al principio del pool
+        a.agregar(new PoligonoIrregularFigura(
+            new int[] { 20, 62, 30 }, new int[] { 50, 30, 2 }, Color.MAGENTA, Color.CYAN, false));
+        return a;
+    }
+
+    private static int[] pixeles(AlmacenColumnar a, boolean desdeColumnas) {
+        BufferedImage img = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        for (int i = 0; i < a.tamano(); i++) {
+            if (desdeColumnas) {
+                a.dibujar(i, g);
+            } else {
+                a.get(i).dibujar(g);
+            }
+        }
+        g.dispose();
+        return img.getRGB(0, 0, 64, 64, null, 0, 64);
+    }
+
+    @Test
+    public void pintarDesdeLasColumnasEsIgualQuePintarLasFiguras() {
+        AlmacenColumnar a = almacen();
+        assertArrayEquals(pixeles(a, false), pixeles(a, true));
+    }
+
+    @Test
+    public void getDevuelveLasMismasFiguras() {
+        AlmacenColumnar a = almacen();
+        List<Figura> instantanea = a.getInstantanea();
+        a.agregar(new PuntoFigura(1, 1, Color.BLACK));
+        assertEquals(6, instantanea.size());
+        PoligonoIrregularFigura p = (PoligonoIrregularFigura) instantanea.get(5);
+        assertEquals(3, p.getNumVertices());
+        assertEquals(62, p.getVerticeX(1));
+        assertFalse(p.isRelleno());
+        assertEquals(new Color(0x80336699, true), ((LineaFigura) a.get(1)).getColorTrazo());
+    }
+
+    @Test
+    public void losColoresSeReutilizan() {
+        AlmacenColumnar a = almacen();
+        assertSame(((PuntoFigura) a.get(0)).getColorTrazo(),
+                   ((PuntoFigura) a.get(0)).getColorTrazo());
+        assertEquals(Color.RED, ((PuntoFigura) a.get(0)).getColorTrazo());
+    }
+}
@@ -0,0 +1,309 @@
+package model;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DetectorInterseccionesTest {
+
+    // ---- Polígono cerrado: hayAutoInterseccion / buscarCruce ----
+
+    @Test
+    public void cuadradoEsSimple() {
+        int[] xs = { 0, 10, 10, 0 };
+        int[] ys = { 0, 0, 10, 10 };
+        assertFalse(DetectorIntersecciones.hayAutoInterseccion(xs, ys, 4));
+        assertNull(DetectorIntersecciones.buscarCruce(xs, ys, 4));
+    }
+
+    @Test
+    public void lazoTieneUnCrucePropio() {
+        int[] xs = { 0, 10, 10, 0 };
+        int[] ys = { 0, 10, 0, 10 };
+        assertArrayEquals(new int[] { 0, 2 }, DetectorIntersecciones.buscarCruce(xs, ys, 4));
+    }
+
+    @Test
+    public void elLadoDeCierreTambienCuenta() {
+        // Solo el lado 4 (del vértice 4 al 0) cruza a otros (al 1 y al 2)
+        int[] xs = { 0, 10, 10, 20, 20 };
+        int[] ys = { 0, 0, 10, 10, 16 };
+        int[] cruce = DetectorIntersecciones.buscarCruce(xs, ys, 5);
+        assertNotNull(cruce);
+        assertEquals(4, cruce[1]);
+    }
+
+    @Test
+    public void verticeSobreOtroLadoEsContacto() {
+        // El vértice 3 (5,0) cae en mitad del lado 0
+        int[] xs = { 0, 10, 10, 5, 0 };
+        int[] ys = { 0, 0, 10, 0, 10 };
+        assertNotNull(DetectorIntersecciones.buscarCruce(xs, ys, 5));
+    }
+
+    @Test
+    public void ladosAlineadosQueSeSolapan() {
+        // Lado 0 de (0,0) a (10,0) y lado 2 de (8,0) a (2,0)... volviendo encima
+        int[] xs = { 0, 10, 10, 8, 2, 2 };
+        int[] ys = { 0, 0, 5, 0, 0, 5 };
+        assertNotNull(DetectorIntersecciones.buscarCruce(xs, ys, 6));
+    }
+
+    @Test
+    public void ladosConsecutivosQueVuelvenAtras() {
+        int[] xs = { 0, 10, 5 };
+        int[] ys = { 0, 0, 0 };
+        assertArrayEquals(new int[] { 0, 2 }, DetectorIntersecciones.buscarCruce(xs, ys, 3));
+    }
+
+    @Test
+    public void verticesRepetidosSeIgnoran() {
+        // Doble clic en cada esquina y el primer vértice repetido al final
+        int[] xs = { 0, 0, 10, 10, 10, 0, 0, 0 };
+        int[] ys = { 0, 0, 0, 10, 10, 10, 10, 0 };
+        assertNull(DetectorIntersecciones.buscarCruce(xs, ys, 8));
+    }
+
+    @Test
+    public void crucesConVerticesRepetidosDevuelvenLadosNoNulos() {
+        int[] xs = { 0, 0, 10, 10, 10, 0 };
+        int[] ys = { 0, 0, 10, 0, 0, 10 };
+        // Los lados 0 y 3 tienen longitud cero; el cruce es entre el 1 y el 4
+        assertArrayEquals(new int[] { 1, 4 }, DetectorIntersecciones.buscarCruce(xs, ys, 6));
+    }
+
+    @Test
+    public void menosDeTresVerticesDistintosNoSeComprueban() {
+        assertNull(DetectorIntersecciones.buscarCruce(new int[] { 1, 1, 1 }, new int[] { 2, 2, 2 }, 3));
+        assertNull(DetectorIntersecciones.buscarCruce(new int[] { 0, 5 }, new int[] { 0, 5 }, 2));
+    }
+
+    @Test
+    public void coordenadasExtremasNoDesbordan() {
+        int max = Integer.MAX_VALUE, min = Integer.MIN_VALUE;
+        int[] xs = { min, max, max, min };
+        int[] ys = { min, min, max, max };
+        assertNull(DetectorIntersecciones.buscarCruce(xs, ys, 4));
+        int[] lazoX = { min, max, max, min };
+        int[] lazoY = { min, max, min, max };
+        assertArrayEquals(new int[] { 0, 2 }, DetectorIntersecciones.buscarCruce(lazoX, lazoY, 4));
+    }
+
+    // ---- Polilínea abierta: hayCruceEnPolilinea / buscarCruceEnPolilinea ----
+
+    @Test
+    public void polilineaConCrucePropio() {
+        int[] xs = { 0, 10, 10, 0, -5 };
+        int[] ys = { 0, 10, 0, 10, -5 };
+        assertArrayEquals(new int[] { 0, 2 },
+            DetectorIntersecciones.buscarCruceEnPolilinea(xs, ys, 5));
+    }
+
+    @Test
+    public void polilineaIgnoraElLadoDeCierre() {
+        // Cerrado cruzaría (lado 4, del vértice 4 al 0); abierto no
+        int[] xs = { 0, 10, 10, 20, 20 };
+        int[] ys = { 0, 0, 10, 10, 16 };
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs, ys, 5));
+    }
+
+    @Test
+    public void polilineaNoComparaElPrimerLadoConElUltimo() {
+        // El último lado cruza al primero, pero esa pareja nunca se ha comprobado
+        int[] xs = { 0, 10, 10, 5, 5 };
+        int[] ys = { 0, 0, 10, 10, -5 };
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs, ys, 5));
+    }
+
+    @Test
+    public void polilineaAceptaContactosYSolapamientos() {
+        // Vértice sobre otro lado
+        int[] xs1 = { 0, 10, 10, 5, 5 };
+        int[] ys1 = { 0, 0, 10, 0, 20 };
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs1, ys1, 5));
+        // Lados alineados que se solapan
+        int[] xs2 = { 0, 10, 10, 8, 2, 2 };
+        int[] ys2 = { 0, 0, 5, 0, 0, 5 };
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs2, ys2, 6));
+        // Vuelta atrás sobre el lado anterior
+        int[] xs3 = { 0, 10, 5, 5 };
+        int[] ys3 = { 0, 0, 0, 9 };
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs3, ys3, 4));
+    }
+
+    @Test
+    public void polilineaConVerticesRepetidos() {
+        int[] xs = { 0, 0, 10, 10, 10, 0, 0, -5 };
+        int[] ys = { 0, 0, 10, 0, 0, 10, 10, -5 };
+        // Cruce entre el lado 1 (0,0)-(10,10) y el 4 (10,0)-(0,10)
+        assertArrayEquals(new int[] { 1, 4 },
+            DetectorIntersecciones.buscarCruceEnPolilinea(xs, ys, 8));
+    }
+
+    @Test(timeout = 5000)
+    public void polilineaLargaConContactosNoEsCuadratica() {
+        // Un lado largo, una vuelta atrás sobre él y luego 100000 dientes de
+        // sierra con los vértices de abajo apoyados en ese primer lado: todo
+        // son contactos, ningún cruce. Probar todos los pares tarda minutos
+        int dientes = 100000;
+        int n = 3 + dientes;
+        int[] xs = new int[n + 1];
+        int[] ys = new int[n + 1];
+        xs[0] = 0;
+        xs[1] = dientes + 10;
+        xs[2] = dientes + 5;
+        for (int i = 3; i < n; i++) {
+            xs[i] = xs[i - 1] - 1;
+            ys[i] = i % 2 == 0 ? 0 : 5;
+        }
+        assertFalse(DetectorIntersecciones.hayCruceEnPolilinea(xs, ys, n));
+
+        // Un último lado que atraviesa los dientes sí cruza
+        xs[n] = xs[n - 1] + dientes / 2;
+        ys[n] = 2;
+        int[] cruce = DetectorIntersecciones.buscarCruceEnPolilinea(xs, ys, n + 1);
+        assertNotNull(cruce);
+        assertEquals(n - 1, cruce[1]);
+    }
+
+    // ---- Comparación con la fuerza bruta ----
+
+    @Test
+    public void coincideConFuerzaBrutaEnRejillaPequena() {
+        // Coordenadas en una rejilla de 6x6: muchos vértices alineados, repetidos y contactos
+        compararAleatorios(new Random(20240611L), 20000, 12, 6);
+    }
+
+    @Test
+    public void coincideConFuerzaBrutaEnRejillaGrande() {
+        compararAleatorios(new Random(7L), 3000, 40, 1000);
+    }
+
+    private static void compararAleatorios(Random r, int casos, int maxVertices, int lado) {
+        for (int caso = 0; caso < casos; caso++) {
+            int n = 3 + r.nextInt(maxVertices - 2);
+            int[] xs = new int[n];
+            int[] ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                // De vez en cuando, un vértice repetido (doble clic)
+                if (i > 0 && r.nextInt(10) == 0) {
+                    xs[i] = xs[i - 1];
+                    ys[i] = ys[i - 1];
+                } else {
+                    xs[i] = r.nextInt(lado);
+                    ys[i] = r.nextInt(lado);
+                }
+            }
+            String desc = "caso " + caso + ": " + describir(xs, ys);
+
+            int[] cruce = DetectorIntersecciones.buscarCruce(xs, ys, n);
+            assertEquals(desc, poligonoNoSimple(xs, ys, n), cruce != null);
+            if (cruce != null) {
+                assertTrue(desc, cruce[0] < cruce[1]);
+                assertTrue(desc, ladosSeTocan(xs, ys, n, cruce[0], cruce[1]));
+            }
+
+            int[] crucePolilinea = DetectorIntersecciones.buscarCruceEnPolilinea(xs, ys, n);
+            assertEquals(desc, polilineaLegado(xs, ys, n), crucePolilinea != null);
+            if (crucePolilinea != null) {
+                int i = crucePolilinea[0], j = crucePolilinea[1];
+                assertTrue(desc, i + 2 <= j && j <= n - 2 && !(i == 0 && j == n - 2));
+                assertTrue(desc, crucePropio(xs[i], ys[i], xs[i + 1], ys[i + 1],
+                                             xs[j], ys[j], xs[j + 1], ys[j + 1]));
+            }
+        }
+    }
+
+    /**
+     * La regla de MainController.hayInterseccionEntreVertices antes del
+     * barrido: todos los pares de lados de la polilínea abierta.
+     */
+    private static boolean polilineaLegado(int[] xs, int[] ys, int n) {
+        if (n < 4) return false;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 2; j < n - 1; j++) {
+                if (i == 0 && j == n - 2) continue;
+                if (crucePropio(xs[i], ys[i], xs[i + 1], ys[i + 1],
+                                xs[j], ys[j], xs[j + 1], ys[j + 1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Polígono cerrado, todos los pares: lados no consecutivos con algún
+     * punto común, o consecutivos que se solapan.
+     */
+    private static boolean poligonoNoSimple(int[] xs, int[] ys, int n) {
+        int[] px = new int[n];
+        int[] py = new int[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m > 0 && xs[i] == px[m - 1] && ys[i] == py[m - 1]) continue;
+            px[m] = xs[i];
+            py[m] = ys[i];
+            m++;
+        }
+        while (m > 1 && px[m - 1] == px[0] && py[m - 1] == py[0]) m--;
+        if (m < 3) return false;
+        for (int i = 0; i < m; i++) {
+            int a = (i + m - 1) % m, b = (i + 1) % m;
+            long giro = orient(px[a], py[a], px[i], py[i], px[b], py[b]);
+            long escalar = (long) (px[a] - px[i]) * (px[b] - px[i])
+                         + (long) (py[a] - py[i]) * (py[b] - py[i]);
+            if (giro == 0 && escalar > 0) return true;
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = i + 2; j < m; j++) {
+                if (i == 0 && j == m - 1) continue;
+                if (segmentosSeTocan(px[i], py[i], px[i + 1], py[i + 1],
+                                     px[j], py[j], px[(j + 1) % m], py[(j + 1) % m])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Los lados i y j del polígono cerrado (sin quitar repetidos) comparten algún punto
+    private static boolean ladosSeTocan(int[] xs, int[] ys, int n, int i, int j) {
+        int i2 = (i + 1) % n, j2 = (j + 1) % n;
+        return segmentosSeTocan(xs[i], ys[i], xs[i2], ys[i2], xs[j], ys[j], xs[j2], ys[j2]);
+    }
+
+    private static boolean crucePropio(int ax, int ay, int bx, int by,
+                                       int cx, int cy, int dx, int dy) {
+        long o1 = orient(ax, ay, bx, by, cx, cy), o2 = orient(ax, ay, bx, by, dx, dy);
+        long o3 = orient(cx, cy, dx, dy, ax, ay), o4 = orient(cx, cy, dx, dy, bx, by);
+        return Long.signum(o1) * Long.signum(o2) < 0 && Long.signum(o3) * Long.signum(o4) < 0;
+    }
+
+    private static boolean segmentosSeTocan(int ax, int ay, int bx, int by,
+                                            int cx, int cy, int dx, int dy) {
+        if (crucePropio(ax, ay, bx, by, cx, cy, dx, dy)) return true;
+        return (orient(ax, ay, bx, by, cx, cy) == 0 && enCaja(cx, cy, ax, ay, bx, by))
+            || (orient(ax, ay, bx, by, dx, dy) == 0 && enCaja(dx, dy, ax, ay, bx, by))
+            || (orient(cx, cy, dx, dy, ax, ay) == 0 && enCaja(ax, ay, cx, cy, dx, dy))
+            || (orient(cx, cy, dx, dy, bx, by) == 0 && enCaja(bx, by, cx, cy, dx, dy));
+    }
+
+    private static long orient(int ax, int ay, int bx, int by, int cx, int cy) {
+        return (long) (bx - ax) * (cy - ay) - (long) (by - ay) * (cx - ax);
+    }
+
+    private static boolean enCaja(int px, int py, int ax, int ay, int bx, int by) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx)
+            && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private static String describir(int[] xs, int[] ys) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < xs.length; i++) {
+            sb.append('(').append(xs[i]).append(',').append(ys[i]).append(')');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package model;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LienzoModelTest {
+    private static final Rectangle REGION = new Rectangle(0, 0, 40, 40);
+
+    private static int[] pintar(Consumer<Graphics2D> pintor) {
+        BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        pintor.accept(g);
+        g.dispose();
+        return img.getRGB(0, 0, 40, 40, null, 0, 40);
+    }
+
+    private static void comprobarInstantanea(LienzoModel modelo) {
+        modelo.agregarFigura(new CirculoFigura(20, 20, 10, Color.RED, Color.BLUE, true));
+        modelo.agregarFigura(new PoligonoIrregularFigura(
+            new int[] { 2, 30, 8 }, new int[] { 2, 5, 35 }, Color.GREEN, Color.WHITE, false));
+        // Fuera de la región: no se pinta
+        modelo.agregarFigura(new LineaFigura(100, 100, 200, 200, Color.BLACK));
+        int[] esperado = pintar(g -> modelo.dibujarEn(g, REGION));
+
+        Consumer<Graphics2D> pintor = modelo.prepararDibujoEn(REGION);
+        // Lo que pase después no cambia lo que pinta el pintor
+        modelo.agregarFigura(new LineaFigura(0, 0, 39, 39, Color.YELLOW));
+        assertFalse(Arrays.equals(esperado, pintar(g -> modelo.dibujarEn(g, REGION))));
+        modelo.clear();
+        modelo.agregarFigura(new PuntoFigura(10, 10, Color.MAGENTA));
+        assertArrayEquals(esperado, pintar(pintor));
+    }
+
+    @Test
+    public void prepararDibujoEnFijaLasFigurasDeEseMomento() {
+        comprobarInstantanea(new LienzoModel());
+    }
+
+    @Test
+    public void prepararDibujoEnFijaLasFigurasDeEseMomentoEnColumnas() {
+        comprobarInstantanea(new LienzoModel(new AlmacenColumnar()));
+    }
+}
@@ -0,0 +1,47 @@
+package model;
+
+import java.awt.Color;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PoligonoRegularFiguraTest {
+
+    /** Los puntos como los calculaba la versión original, vértice a vértice. */
+    private static String puntosOriginales(int cx, int cy, int radio, int nLados, double angulo) {
+        StringBuilder sb = new StringBuilder();
+        double angInc = 2 * Math.PI / nLados;
+        for (int i = 0; i < nLados; i++) {
+            double ang = angulo + i * angInc;
+            if (i > 0) sb.append(' ');
+            sb.append(cx + (int) Math.round(radio * Math.cos(ang))).append(',')
+              .append(cy + (int) Math.round(radio * Math.sin(ang)));
+        }
+        return sb.toString();
+    }
+
+    private static void comprobar(int cx, int cy, int radio, int nLados, double angulo) {
+        PoligonoRegularFigura p = new PoligonoRegularFigura(
+            cx, cy, radio, nLados, angulo, Color.BLACK, Color.WHITE, false);
+        assertTrue(p.toSVG(), p.toSVG().startsWith(
+            "<polygon points=\"" + puntosOriginales(cx, cy, radio, nLados, angulo) + "\""));
+    }
+
+    @Test
+    public void hexagonosDeRadioImparNoSeMueven() {
+        // Empates a .5: radio * cos(60º) con radio impar
+        for (int radio = 1; radio < 200; radio += 2) {
+            comprobar(0, 0, radio, 6, 0.0);
+        }
+    }
+
+    @Test
+    public void verticesIgualesQueElCalculoOriginal() {
+        Random r = new Random(11);
+        for (int k = 0; k < 20000; k++) {
+            comprobar(r.nextInt(2000) - 1000, r.nextInt(2000) - 1000, 1 + r.nextInt(300),
+                      3 + r.nextInt(10), r.nextDouble() * 2 * Math.PI);
+        }
+    }
+}